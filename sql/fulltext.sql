@@ -0,0 +1,5 @@
+-- item.item_name H2 네이티브 전문 검색 인덱스 ( item.name-search=FULL_TEXT )
+-- schema.sql 다음에 실행한다. 인덱스가 이미 있으면 FT_DROP_INDEX('PUBLIC', 'ITEM') 후 다시 만든다.
+create alias if not exists FT_INIT for 'org.h2.fulltext.FullText.init';
+call FT_INIT();
+call FT_CREATE_INDEX('PUBLIC', 'ITEM', 'ITEM_NAME');
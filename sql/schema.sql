@@ -1,3 +1,5 @@
+-- src/main/resources/db/migration 의 최종 스키마 ( 수동 생성용 )
+-- 이 스크립트로 만든 DB 는 기동할 때 Flyway 가 V1 기준선으로 등록하고 이후 버전만 적용한다.
 drop table if exists item CASCADE;
 create table item
 (
@@ -5,5 +7,8 @@ create table item
     item_name varchar(10),
     price     integer,
     quantity  integer,
+    version   bigint default 0 not null,
     primary key (id)
 );
+
+create index item_price_covering_idx on item (price, id, item_name, quantity, version);
@@ -0,0 +1,41 @@
+package hello.springdb2.benchmark;
+
+import hello.springdb2.example.columnar.config.ColumnarConfig;
+import hello.springdb2.example.jdbctemplate.config.JdbcTemplateV1Config;
+import hello.springdb2.example.jdbctemplate.config.JdbcTemplateV2Config;
+import hello.springdb2.example.jdbctemplate.config.JdbcTemplateV3Config;
+import hello.springdb2.example.jpa.config.JpaConfig;
+import hello.springdb2.example.memory.config.MemoryConfig;
+import hello.springdb2.example.mybatis.config.MyBatisConfig;
+import hello.springdb2.example.qeurydsl.config.QueryDslConfig;
+import hello.springdb2.example.sharding.config.ShardingConfig;
+import hello.springdb2.example.springdatajpa.config.SpringDataJpaConfig;
+import hello.springdb2.example.v2.config.V2Config;
+
+/**
+ * 벤치마크 대상 설정
+ * - V2 를 제외하면 ItemServiceV1 이 리포지토리에 위임만 하므로 리포지토리 비용이 그대로 측정된다.
+ */
+public enum Backend {
+    MEMORY(MemoryConfig.class),
+    COLUMNAR(ColumnarConfig.class),
+    JDBC_TEMPLATE_V1(JdbcTemplateV1Config.class),
+    JDBC_TEMPLATE_V2(JdbcTemplateV2Config.class),
+    JDBC_TEMPLATE_V3(JdbcTemplateV3Config.class),
+    MYBATIS(MyBatisConfig.class),
+    JPA_V1(JpaConfig.class),
+    JPA_V2(SpringDataJpaConfig.class),
+    JPA_V3(QueryDslConfig.class),
+    SHARDED(ShardingConfig.class),
+    SERVICE_V2(V2Config.class);
+
+    private final Class<?> configClass;
+
+    Backend(Class<?> configClass) {
+        this.configClass = configClass;
+    }
+
+    public Class<?> getConfigClass() {
+        return configClass;
+    }
+}
@@ -0,0 +1,32 @@
+package hello.springdb2.benchmark;
+
+import hello.springdb2.config.JpaCacheConfig;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 벤치마크용 부트스트랩
+ * - 컨트롤러, V2Config 없이 지정한 설정 클래스 하나만 올린다.
+ * - 엔티티, 스프링 데이터 JPA, MyBatis 매퍼 스캔은 hello.springdb2 기준
+ * - 하이버네이트 2차 캐시는 JpaCacheConfig 로 설정한다. ( 기본은 꺼 두고 DB 접근을 잰다. )
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@AutoConfigurationPackage(basePackages = "hello.springdb2")
+public class BenchmarkApplication {
+
+    public static ConfigurableApplicationContext run(
+            Class<?> configClass
+    ) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class, JpaCacheConfig.class, configClass)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run();
+    }
+}
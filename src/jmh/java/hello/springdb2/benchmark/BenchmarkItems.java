@@ -0,0 +1,33 @@
+package hello.springdb2.benchmark;
+
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+
+/**
+ * 벤치마크 데이터
+ * - item_name 은 varchar(10) 이므로 "item" + 6자리 이내 번호를 사용한다.
+ * - 가격은 1,000 ~ 100,000 사이에 고르게 분포한다.
+ */
+public abstract class BenchmarkItems {
+    public static final ItemSearchCond NO_FILTER = new ItemSearchCond(null, null);
+    public static final ItemSearchCond NAME = new ItemSearchCond("item12", null);
+    public static final ItemSearchCond MAX_PRICE = new ItemSearchCond(null, 10000);
+    public static final ItemSearchCond NAME_AND_MAX_PRICE = new ItemSearchCond("item12", 10000);
+
+    public static ItemAddDto addDto(int seq) {
+        return new ItemAddDto(itemName(seq), price(seq), seq % 100);
+    }
+
+    public static ItemUpdateDto updateDto(int seq) {
+        return new ItemUpdateDto(itemName(seq), price(seq), seq % 100, null);
+    }
+
+    public static String itemName(int seq) {
+        return "item" + (seq % 1_000_000);
+    }
+
+    public static int price(int seq) {
+        return (seq % 100 + 1) * 1000;
+    }
+}
@@ -0,0 +1,101 @@
+package hello.springdb2.benchmark;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 구현체별 save / update / findById / findAll 비용 측정
+ * - ./gradlew jmh 로 실행하며 gc 프로파일러로 호출당 할당량(gc.alloc.rate.norm)도 함께 본다.
+ * - save 는 측정 중 테이블을 계속 키우므로 tableSize 는 시작 크기이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    @Param
+    private Backend backend;
+
+    @Param({"1000", "10000", "100000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private long[] ids;
+    private int seq;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.run(backend.getConfigClass());
+        itemService = context.getBean(ItemService.class);
+
+        ids = new long[tableSize];
+        for (int i = 0; i < tableSize; i++) {
+            ids[i] = itemService.save(BenchmarkItems.addDto(i)).getId();
+        }
+        seq = tableSize;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // 메모리 Repository 는 static 저장소이므로 직접 비운다.
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        if (itemRepository instanceof MemoryItemRepository) {
+            ((MemoryItemRepository) itemRepository).clearStore();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public Item save() {
+        return itemService.save(BenchmarkItems.addDto(seq++));
+    }
+
+    @Benchmark
+    public long update() {
+        long id = randomId();
+        itemService.update(id, BenchmarkItems.updateDto((int) id));
+        return id;
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return itemService.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Item> findAllNoFilter() {
+        return itemService.findItems(BenchmarkItems.NO_FILTER);
+    }
+
+    @Benchmark
+    public List<Item> findAllByName() {
+        return itemService.findItems(BenchmarkItems.NAME);
+    }
+
+    @Benchmark
+    public List<Item> findAllByMaxPrice() {
+        return itemService.findItems(BenchmarkItems.MAX_PRICE);
+    }
+
+    @Benchmark
+    public List<Item> findAllByNameAndMaxPrice() {
+        return itemService.findItems(BenchmarkItems.NAME_AND_MAX_PRICE);
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,86 @@
+package hello.springdb2.benchmark;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemoryItemRepository 멀티 스레드 처리량 비교
+ * - CONCURRENT: MemoryItemRepository 그대로
+ * - SYNCHRONIZED: 같은 저장소를 synchronized 래퍼로 감싼 것
+ * - 스레드 수에 따른 확장성은 jmh { threads = N } 을 바꿔가며 findById 처리량을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemoryConcurrencyBenchmark {
+
+    public enum Guard {CONCURRENT, SYNCHRONIZED}
+
+    @Param
+    private Guard guard;
+
+    @Param({"100000"})
+    private int tableSize;
+
+    private MemoryItemRepository memoryItemRepository;
+    private ItemRepository itemRepository;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        memoryItemRepository = new MemoryItemRepository();
+        memoryItemRepository.clearStore();
+        itemRepository = guard == Guard.CONCURRENT
+                ? memoryItemRepository
+                : new SynchronizedItemRepository(memoryItemRepository);
+
+        ids = new long[tableSize];
+        for (int i = 0; i < tableSize; i++) {
+            ids[i] = itemRepository.save(new Item(
+                    BenchmarkItems.itemName(i), BenchmarkItems.price(i), i % 100
+            )).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        memoryItemRepository.clearStore();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Optional<Item> findById() {
+        return itemRepository.findById(randomId());
+    }
+
+    // 읽기 3 : 쓰기 1 혼합 부하
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Optional<Item> mixedRead() {
+        return itemRepository.findById(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public long mixedUpdate() {
+        int seq = ThreadLocalRandom.current().nextInt(tableSize);
+        long id = ids[seq];
+        itemRepository.update(id, BenchmarkItems.updateDto(seq));
+        return id;
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
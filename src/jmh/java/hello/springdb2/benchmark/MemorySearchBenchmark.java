@@ -0,0 +1,87 @@
+package hello.springdb2.benchmark;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.example.columnar.repository.ColumnarItemRepository;
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemoryItemRepository 검색 비용 - 테이블 크기가 커져도 선택도가 같은 검색은 비용이 비슷해야 한다.
+ * - maxPrice: 가격 인덱스에서 조건을 만족하는 구간만 읽는다.
+ * - itemName: 트라이그램 인덱스 후보만 확인한다.
+ * <p>
+ * COLUMNAR 는 인덱스 없이 기본형 배열을 훑는 ColumnarItemRepository 비교용이다. ( 비용이 테이블 크기에 비례 )
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MemorySearchBenchmark {
+
+    public enum Store {MEMORY, COLUMNAR}
+
+    @Param
+    private Store store;
+
+    @Param({"100000", "1000000", "3000000"})
+    private int tableSize;
+
+    private ItemRepository itemRepository;
+    private ItemSearchCond smallCutoff;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (store == Store.COLUMNAR) {
+            itemRepository = new ColumnarItemRepository(tableSize);
+        } else {
+            MemoryItemRepository memoryItemRepository = new MemoryItemRepository();
+            memoryItemRepository.clearStore();
+            itemRepository = memoryItemRepository;
+        }
+        for (int i = 0; i < tableSize; i++) {
+            itemRepository.save(new Item(BenchmarkItems.itemName(i), price(i), i % 100));
+        }
+        // 테이블 크기와 관계없이 100건만 매칭
+        smallCutoff = new ItemSearchCond(null, 99);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (itemRepository instanceof MemoryItemRepository memoryItemRepository) {
+            memoryItemRepository.clearStore();
+        }
+        itemRepository = null;
+    }
+
+    @Benchmark
+    public List<Item> findAllBySmallMaxPrice() {
+        return itemRepository.findAll(smallCutoff);
+    }
+
+    @Benchmark
+    public List<Item> findAllByMaxPrice() {
+        return itemRepository.findAll(BenchmarkItems.MAX_PRICE);
+    }
+
+    @Benchmark
+    public List<Item> findAllByName() {
+        return itemRepository.findAll(BenchmarkItems.NAME);
+    }
+
+    @Benchmark
+    public List<Item> findAllByNameAndMaxPrice() {
+        return itemRepository.findAll(BenchmarkItems.NAME_AND_MAX_PRICE);
+    }
+
+    // 0 ~ 99 는 한 건씩, 나머지는 BenchmarkItems 분포를 따른다.
+    private static int price(int seq) {
+        return seq < 100 ? seq : BenchmarkItems.price(seq);
+    }
+}
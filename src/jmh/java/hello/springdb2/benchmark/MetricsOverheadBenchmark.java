@@ -0,0 +1,65 @@
+package hello.springdb2.benchmark;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.metrics.TimedItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메트릭 데코레이터( TimedItemRepository ) 비용 - 가장 짧은 경로인 MemoryItemRepository.findById 기준
+ * - RAW: MemoryItemRepository 그대로
+ * - TIMED: 타이머( p50 / p99 / p999 ) 로 감싼 것
+ * - 두 결과의 차이가 호출 한 번에 더해지는 비용이다. 스레드 수는 jmh { threads = N } 로 바꿔가며 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    public enum Wrapper {RAW, TIMED}
+
+    @Param
+    private Wrapper wrapper;
+
+    @Param({"100000"})
+    private int tableSize;
+
+    private MemoryItemRepository memoryItemRepository;
+    private ItemRepository itemRepository;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        memoryItemRepository = new MemoryItemRepository();
+        memoryItemRepository.clearStore();
+        itemRepository = wrapper == Wrapper.RAW
+                ? memoryItemRepository
+                : new TimedItemRepository(memoryItemRepository, "MemoryItemRepository", new SimpleMeterRegistry());
+
+        ids = new long[tableSize];
+        for (int i = 0; i < tableSize; i++) {
+            ids[i] = itemRepository.save(new Item(
+                    BenchmarkItems.itemName(i), BenchmarkItems.price(i), i % 100
+            )).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        memoryItemRepository.clearStore();
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return itemRepository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
@@ -0,0 +1,85 @@
+package hello.springdb2.benchmark;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.repository.support.ItemBatchInsert;
+import hello.springdb2.repository.support.RowMappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 같은 조회 결과를 Item 으로 매핑하는 비용 비교
+ * - HAND_WRITTEN: JdbcTemplateItemRepositoryV1 에 있던 직접 작성한 매퍼
+ * - BEAN_PROPERTY: JdbcTemplateItemRepositoryV2, V3 에 있던 BeanPropertyRowMapper.newInstance ( 호출마다 생성 )
+ * - GENERATED: RowMappers ( 클래스 + 컬럼 모양마다 한 번 생성 )
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMapperBenchmark {
+    private static final String SQL = "select id, item_name, price, quantity from item";
+
+    public enum Mapper {HAND_WRITTEN, BEAN_PROPERTY, GENERATED}
+
+    @Param
+    private Mapper mapper;
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate template;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:row-mapper;DB_CLOSE_DELAY=-1", true);
+        template = new JdbcTemplate(dataSource);
+        template.execute("drop table if exists item");
+        template.execute("create table item (id bigint generated by default as identity, item_name varchar(10), price integer, quantity integer, primary key (id))");
+
+        List<Item> items = IntStream.range(0, rows)
+                .mapToObj(i -> new Item(BenchmarkItems.itemName(i), BenchmarkItems.price(i), i % 100))
+                .toList();
+        template.execute((ConnectionCallback<Void>) con -> {
+            ItemBatchInsert.insert(con, items, ItemBatchInsert.DEFAULT_BATCH_SIZE);
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        template.execute("drop table item");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<Item> query() {
+        return template.query(SQL, rowMapper());
+    }
+
+    private RowMapper<Item> rowMapper() {
+        return switch (mapper) {
+            case HAND_WRITTEN -> (rs, rowNum) -> {
+                Item item = new Item(
+                        rs.getString("item_name"),
+                        rs.getInt("price"),
+                        rs.getInt("quantity")
+                );
+                item.setId(rs.getLong("id"));
+                return item;
+            };
+            case BEAN_PROPERTY -> BeanPropertyRowMapper.newInstance(Item.class);
+            case GENERATED -> RowMappers.of(Item.class, "id", "item_name", "price", "quantity");
+        };
+    }
+}
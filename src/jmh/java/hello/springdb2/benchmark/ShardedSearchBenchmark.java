@@ -0,0 +1,81 @@
+package hello.springdb2.benchmark;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.example.sharding.config.ShardingConfig;
+import hello.springdb2.repository.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 샤드 수에 따른 검색 처리량 - 전체 건수는 같고 샤드만 늘린다.
+ * - 샤드마다 테이블이 작아지고 동시에 훑으므로, 스캔 비중이 큰 검색일수록 샤드 수에 따라 늘어나야 한다.
+ * - 여러 스레드가 동시에 검색하는 경우( threads=4 )도 함께 본다. ( 샤드 실행 스레드가 병목이 되는지 )
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardedSearchBenchmark {
+    private static final int SAVE_CHUNK = 10_000;
+
+    @Param({"1", "2", "4", "8"})
+    private int shards;
+
+    @Param({"100000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("item.sharding.shards", Integer.toString(shards));
+        context = BenchmarkApplication.run(ShardingConfig.class);
+        itemRepository = context.getBean(ItemRepository.class);
+
+        List<Item> chunk = new ArrayList<>(SAVE_CHUNK);
+        for (int i = 0; i < tableSize; i++) {
+            chunk.add(new Item(BenchmarkItems.itemName(i), BenchmarkItems.price(i), i % 100));
+            if (chunk.size() == SAVE_CHUNK) {
+                itemRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            itemRepository.saveAll(chunk);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.clearProperty("item.sharding.shards");
+    }
+
+    @Benchmark
+    public List<Item> findAllByName() {
+        return itemRepository.findAll(BenchmarkItems.NAME);
+    }
+
+    @Benchmark
+    public List<Item> findAllByMaxPrice() {
+        return itemRepository.findAll(BenchmarkItems.MAX_PRICE);
+    }
+
+    @Benchmark
+    public List<Item> findAllByNameAndMaxPrice() {
+        return itemRepository.findAll(BenchmarkItems.NAME_AND_MAX_PRICE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Item> findAllByNameConcurrently() {
+        return itemRepository.findAll(BenchmarkItems.NAME);
+    }
+}
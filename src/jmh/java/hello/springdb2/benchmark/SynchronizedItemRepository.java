@@ -0,0 +1,63 @@
+package hello.springdb2.benchmark;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 비교 기준: 모든 호출을 하나의 락으로 직렬화하는 래퍼
+ */
+public class SynchronizedItemRepository implements ItemRepository {
+    private final ItemRepository delegate;
+
+    public SynchronizedItemRepository(ItemRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized Item save(Item item) {
+        return delegate.save(item);
+    }
+
+    @Override
+    public synchronized List<Item> saveAll(Collection<Item> items) {
+        return delegate.saveAll(items);
+    }
+
+    @Override
+    public synchronized void update(Long itemId, ItemUpdateDto updateParam) {
+        delegate.update(itemId, updateParam);
+    }
+
+    @Override
+    public synchronized Optional<Item> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public synchronized List<Item> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public synchronized List<Item> findAll(ItemSearchCond cond) {
+        return delegate.findAll(cond);
+    }
+
+    @Override
+    public synchronized List<Item> findPage(ItemSearchCond cond, ItemPageCond page) {
+        return delegate.findPage(cond, page);
+    }
+
+    @Override
+    public synchronized void streamAll(ItemSearchCond cond, Consumer<Item> action) {
+        delegate.streamAll(cond, action);
+    }
+}
@@ -1,5 +1,15 @@
 package hello.springdb2;
 
+import hello.springdb2.config.AsyncItemServiceConfig;
+import hello.springdb2.config.DataSourceRoutingConfig;
+import hello.springdb2.config.ItemCacheConfig;
+import hello.springdb2.config.ItemCatalogVersionConfig;
+import hello.springdb2.config.ItemDecoratorConfig;
+import hello.springdb2.config.ItemMetricsConfig;
+import hello.springdb2.config.ItemNameIndexConfig;
+import hello.springdb2.config.JpaCacheConfig;
+import hello.springdb2.config.SchemaConfig;
+import hello.springdb2.config.SqlTraceConfig;
 import hello.springdb2.example.v2.config.V2Config;
 import hello.springdb2.repository.ItemRepository;
 import org.springframework.boot.SpringApplication;
@@ -8,7 +18,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
 
-@Import(V2Config.class)
+@Import({V2Config.class, ItemDecoratorConfig.class, ItemNameIndexConfig.class, ItemCacheConfig.class, ItemMetricsConfig.class, AsyncItemServiceConfig.class, JpaCacheConfig.class, SchemaConfig.class, DataSourceRoutingConfig.class, SqlTraceConfig.class, ItemCatalogVersionConfig.class})
 @SpringBootApplication(scanBasePackages = "hello.springdb2.controller")
 public class SpringDb2Application {
 
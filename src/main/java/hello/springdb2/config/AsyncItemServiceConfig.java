@@ -0,0 +1,72 @@
+package hello.springdb2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.springdb2.repository.routing.ReadYourWrites;
+import hello.springdb2.repository.trace.SqlStatementCounter;
+import hello.springdb2.service.AsyncItemService;
+import hello.springdb2.service.ItemService;
+import hello.springdb2.service.async.ExecutorAsyncItemService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * ItemController 의 비동기 요청 처리용 ItemService 와 전용 스레드 풀
+ * <p>
+ * 스레드가 커넥션보다 많으면 남는 스레드는 커넥션을 기다리며 놀기만 하므로, 풀 크기에 맞춘다.
+ * - 스레드 수 = 커넥션 풀 최대 크기 - item.async.reserved-connections ( 기본 2, 서블릿 스레드의 findById 몫 )
+ * - item.async.queue-capacity: 대기 작업 수 ( 기본 100, 넘치면 거절 )
+ * - HikariDataSource 가 아니면 item.async.pool-size ( 기본 10 ) 를 커넥션 풀 크기로 본다.
+ */
+@Slf4j
+@Configuration
+public class AsyncItemServiceConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor itemServiceExecutor(
+            DataSource dataSource,
+            @Value("${item.async.pool-size:10}") int defaultPoolSize,
+            @Value("${item.async.reserved-connections:2}") int reservedConnections,
+            @Value("${item.async.queue-capacity:100}") int queueCapacity
+    ) {
+        int threads = Math.max(1, connectionPoolSize(dataSource, defaultPoolSize) - reservedConnections);
+        log.info("itemServiceExecutor threads={}, queueCapacity={}", threads, queueCapacity);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("item-async-");
+        // 요청 스레드의 SQL 문 카운터와 read-your-writes 창을 작업 스레드로 넘긴다. ( SqlTraceConfig, DataSourceRoutingConfig )
+        executor.setTaskDecorator(task -> SqlStatementCounter.propagate(ReadYourWrites.propagate(task)));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    @Bean
+    public AsyncItemService asyncItemService(
+            ItemService itemService,
+            ThreadPoolTaskExecutor itemServiceExecutor
+    ) {
+        return new ExecutorAsyncItemService(itemService, itemServiceExecutor);
+    }
+
+    private static int connectionPoolSize(
+            DataSource dataSource,
+            int defaultPoolSize
+    ) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("connection pool size unavailable", e);
+        }
+        return defaultPoolSize;
+    }
+}
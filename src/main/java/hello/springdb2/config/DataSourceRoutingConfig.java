@@ -0,0 +1,165 @@
+package hello.springdb2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.springdb2.controller.ReadYourWritesInterceptor;
+import hello.springdb2.repository.routing.H2ReplicationStandIn;
+import hello.springdb2.repository.routing.ReadWriteRoutingDataSource;
+import hello.springdb2.repository.routing.ReplicaReadJpaDialect;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 트랜잭션을 복제 DB 로 보낸다. ( item.routing.enabled=true 일 때만 )
+ * - item.routing.replica-urls: 복제 DB JDBC URL 목록 ( 쉼표 구분, 계정은 spring.datasource.username / password )
+ * - item.routing.sticky-ms: 쓰기 뒤 같은 클라이언트의 읽기를 주 DB 로 보내는 시간 ( 기본 2000ms )
+ * - item.routing.replication-interval-ms: 0 보다 크면 복제 DB 를 H2ReplicationStandIn 으로 채운다. ( 로컬 H2 용 )
+ * <p>
+ * 로컬 예 - 주 DB 는 기본 내장 H2, 복제 DB 는 jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1, replication-interval-ms=500
+ * <p>
+ * 커넥션이 트랜잭션마다 새로 골라져야 하므로 spring.jpa.open-in-view 는 꺼 둔다. ( application.properties )
+ * 복제 DB 에서 읽은 값이 하이버네이트 2차 캐시( JpaCacheConfig )에 들어가지 않도록 읽기 전용 트랜잭션은 CacheMode.GET 으로 둔다.
+ * <p>
+ * 후처리기는 PriorityOrdered( ORDER )라 다른 후처리기보다 먼저 등록되고 먼저 적용된다.
+ * - SqlTraceConfig 는 그 뒤에 감싸므로 복제 DB 로 간 문장도 추적된다.
+ * - ItemDecoratorConfig( 캐시, 메트릭 등 )보다 먼저 등록되므로 JpaTransactionManager 의 dialect 교체도 그 전에 끝난다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "item.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    /**
+     * BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 @Value 대신 Environment 에서 읽는다.
+     */
+    @Bean
+    public static RoutingDataSourcePostProcessor routingDataSourcePostProcessor(
+            Environment environment
+    ) {
+        return new RoutingDataSourcePostProcessor(environment);
+    }
+
+    /**
+     * JpaTransactionManager.afterPropertiesSet 이 EntityManagerFactory 의 dialect 로 덮어쓰므로 초기화 뒤에 바꾼다.
+     */
+    @Bean
+    public static ReplicaReadJpaDialectPostProcessor replicaReadJpaDialectPostProcessor() {
+        return new ReplicaReadJpaDialectPostProcessor();
+    }
+
+    @Bean
+    @ConditionalOnWebApplication
+    public WebMvcConfigurer readYourWritesConfigurer(
+            @Value("${item.routing.sticky-ms:2000}") long stickyMs
+    ) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ReadYourWritesInterceptor(Duration.ofMillis(stickyMs)))
+                        .addPathPatterns("/items", "/items/**");
+            }
+        };
+    }
+
+    /**
+     * 감싼 빈은 destroy 메서드를 잃으므로, 주 DB 와 복제 DB 는 이 후처리기가 닫는다.
+     */
+    public static class RoutingDataSourcePostProcessor implements BeanPostProcessor, PriorityOrdered, DisposableBean {
+        private final Environment environment;
+        private final List<ReadWriteRoutingDataSource> created = new ArrayList<>();
+
+        RoutingDataSourcePostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primary) || bean instanceof LazyConnectionDataSourceProxy) {
+                return bean;
+            }
+            String[] replicaUrls = environment.getProperty("item.routing.replica-urls", String[].class, new String[0]);
+            if (replicaUrls.length == 0) {
+                log.warn("item.routing.replica-urls is empty. all queries go to the primary.");
+                return bean;
+            }
+
+            String username = environment.getProperty("spring.datasource.username", "sa");
+            String password = environment.getProperty("spring.datasource.password", "");
+            List<HikariDataSource> replicas = new ArrayList<>();
+            for (int i = 0; i < replicaUrls.length; i++) {
+                HikariDataSource replica = new HikariDataSource();
+                replica.setPoolName("replica-" + i);
+                replica.setJdbcUrl(replicaUrls[i].trim());
+                replica.setUsername(username);
+                replica.setPassword(password);
+                replicas.add(replica);
+            }
+
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                    primary,
+                    replicas,
+                    Duration.ofMillis(environment.getProperty("item.routing.sticky-ms", Long.class, 2000L))
+            );
+            created.add(routing);
+
+            long replicationMs = environment.getProperty("item.routing.replication-interval-ms", Long.class, 0L);
+            if (replicationMs > 0) {
+                for (HikariDataSource replica : replicas) {
+                    try {
+                        routing.addResource(H2ReplicationStandIn.start(primary, password, replica, Duration.ofMillis(replicationMs)));
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("failed to start replication stand-in. url=" + replica.getJdbcUrl(), e);
+                    }
+                }
+            }
+
+            log.info("read/write routing. replicas={}, replicationMs={}", replicaUrls.length, replicationMs);
+            return new LazyConnectionDataSourceProxy(routing);
+        }
+
+        @Override
+        public void destroy() {
+            created.forEach(ReadWriteRoutingDataSource::close);
+        }
+    }
+
+    public static class ReplicaReadJpaDialectPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof JpaTransactionManager transactionManager) {
+                transactionManager.setJpaDialect(new ReplicaReadJpaDialect());
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package hello.springdb2.config;
+
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.cache.CachingItemRepository;
+import hello.springdb2.service.ItemService;
+import hello.springdb2.service.cache.CachingItemService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 어떤 설정으로 등록된 빈이든 캐시 데코레이터로 감싼다. ( ItemDecorator.CACHE - 이름 색인 바깥, 메트릭 안쪽 )
+ * <p>
+ * item.cache.enabled=true: ItemRepository 를 CachingItemRepository 로 감싼다.
+ * - item.cache.maximum-size: 최대 캐시 건수 ( 기본 10,000 )
+ * - 메트릭 이름: item.findById ( /actuator/metrics/cache.gets 등 )
+ * <p>
+ * item.search-cache.enabled=true: ItemService 를 CachingItemService 로 감싼다.
+ * - item.search-cache.maximum-size: 최대 검색 조건 수 ( 기본 1,000 )
+ * - item.search-cache.ttl-seconds: 결과 유지 시간 ( 기본 10초 )
+ * - 메트릭 이름: item.findItems
+ */
+@Configuration
+public class ItemCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "item.cache.enabled", havingValue = "true")
+    public ItemDecorator cachingItemRepositoryDecorator(
+            @Value("${item.cache.maximum-size:10000}") long maximumSize,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new ItemDecorator() {
+            @Override
+            public int getOrder() {
+                return CACHE;
+            }
+
+            @Override
+            public Object decorate(Object bean) {
+                if (!(bean instanceof ItemRepository) || bean instanceof CachingItemRepository) {
+                    return bean;
+                }
+
+                CachingItemRepository cachingItemRepository = new CachingItemRepository((ItemRepository) bean, maximumSize);
+                meterRegistry.ifAvailable(registry -> cachingItemRepository.bindTo(registry, "item.findById"));
+                return cachingItemRepository;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "item.search-cache.enabled", havingValue = "true")
+    public ItemDecorator cachingItemServiceDecorator(
+            @Value("${item.search-cache.maximum-size:1000}") long maximumSize,
+            @Value("${item.search-cache.ttl-seconds:10}") long ttlSeconds,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new ItemDecorator() {
+            @Override
+            public int getOrder() {
+                return CACHE;
+            }
+
+            @Override
+            public Object decorate(Object bean) {
+                if (!(bean instanceof ItemService) || bean instanceof CachingItemService) {
+                    return bean;
+                }
+
+                CachingItemService cachingItemService = new CachingItemService(
+                        (ItemService) bean, maximumSize, Duration.ofSeconds(ttlSeconds)
+                );
+                meterRegistry.ifAvailable(registry -> cachingItemService.bindTo(registry, "item.findItems"));
+                return cachingItemService;
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package hello.springdb2.config;
+
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.version.CatalogVersionItemRepository;
+import hello.springdb2.repository.version.ItemCatalogVersion;
+import hello.springdb2.service.ItemService;
+import hello.springdb2.service.version.CatalogVersionItemService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * ItemController 의 조건부 조회( ETag / Last-Modified )에 쓰는 ItemCatalogVersion
+ * - 어떤 설정으로 등록된 ItemRepository, ItemService 빈이든 쓰기마다 버전을 올리는 데코레이터로 감싼다.
+ * - 다른 데코레이터( 캐시, 메트릭 )보다 나중에 적용해 가장 바깥을 감싼다. ( ItemDecorator.CATALOG_VERSION, 메트릭 class 태그가 그대로 남는다. )
+ */
+@Slf4j
+@Configuration
+public class ItemCatalogVersionConfig {
+
+    /**
+     * item.conditional-get.skip-lookup=true 이면 지금 버전의 태그에 조회 없이 304 로 답한다. ( 기본 꺼짐 )
+     * - 버전이 JVM 하나의 카운터이므로 인스턴스가 하나이고 모든 쓰기가 이 애플리케이션을 거칠 때만 켠다.
+     * - 읽기/쓰기 라우팅이 켜져 있으면 켜도 쓰지 않는다. ( 복제 DB 의 옛 데이터가 새 태그에 묶이지 않게 )
+     */
+    @Bean
+    public ItemCatalogVersion itemCatalogVersion(
+            @Value("${item.conditional-get.skip-lookup:false}") boolean skipLookup,
+            @Value("${item.routing.enabled:false}") boolean routingEnabled
+    ) {
+        if (skipLookup && routingEnabled) {
+            log.warn("item.conditional-get.skip-lookup is ignored while item.routing.enabled=true.");
+        }
+        return new ItemCatalogVersion(Clock.systemUTC(), skipLookup && !routingEnabled);
+    }
+
+    @Bean
+    public ItemDecorator catalogVersionItemDecorator(
+            ObjectProvider<ItemCatalogVersion> itemCatalogVersion
+    ) {
+        return new ItemDecorator() {
+            @Override
+            public int getOrder() {
+                return CATALOG_VERSION;
+            }
+
+            @Override
+            public Object decorate(Object bean) {
+                if (bean instanceof CatalogVersionItemRepository || bean instanceof CatalogVersionItemService) {
+                    return bean;
+                }
+                if (bean instanceof ItemRepository itemRepository) {
+                    return new CatalogVersionItemRepository(itemRepository, itemCatalogVersion.getObject());
+                }
+                if (bean instanceof ItemService itemService) {
+                    return new CatalogVersionItemService(itemService, itemCatalogVersion.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
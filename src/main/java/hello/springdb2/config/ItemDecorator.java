@@ -0,0 +1,17 @@
+package hello.springdb2.config;
+
+import org.springframework.core.Ordered;
+
+/**
+ * ItemRepository, ItemService 빈을 감싸는 데코레이터 하나 ( ItemDecoratorConfig 가 적용한다. )
+ * - getOrder 가 작은 것부터 감싼다. 나중에 감쌀수록 바깥이다.
+ * - 감쌀 빈이 아니거나 이미 감싼 빈이면 그대로 돌려준다.
+ */
+public interface ItemDecorator extends Ordered {
+    int NAME_INDEX = 100;
+    int CACHE = 200;
+    int METRICS = 300;
+    int CATALOG_VERSION = 400;
+
+    Object decorate(Object bean);
+}
@@ -0,0 +1,61 @@
+package hello.springdb2.config;
+
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.service.ItemService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * 등록된 ItemDecorator 빈( 이름 색인, 캐시, 메트릭, 카탈로그 버전 )을 getOrder 순서대로 ItemRepository, ItemService 빈에 적용한다.
+ * <p>
+ * 데코레이터마다 후처리기를 두면 감싸는 순서가 @Import 선언 순서에 묶이므로 후처리기 하나에서 순서를 정한다.
+ * 이 후처리기는 Ordered 를 구현하지 않는다. 스프링의 Ordered 후처리기( @Transactional 프록시, @Repository 예외 변환 )가
+ * 먼저 적용된 빈을 감싸야 하기 때문이다. ( 예외 변환 후처리기는 LOWEST_PRECEDENCE 라 그보다 뒤인 Ordered 값이 없다. )
+ */
+@Configuration
+public class ItemDecoratorConfig {
+
+    @Bean
+    public static ItemDecoratorPostProcessor itemDecoratorPostProcessor(
+            ObjectProvider<ItemDecorator> decorators
+    ) {
+        return new ItemDecoratorPostProcessor(decorators);
+    }
+
+    /**
+     * 데코레이터 빈은 처음 감쌀 빈이 나올 때 가져온다. ( 데코레이터 빈을 만드는 중에 다시 찾지 않게 )
+     */
+    public static class ItemDecoratorPostProcessor implements BeanPostProcessor {
+        private final ObjectProvider<ItemDecorator> decorators;
+        private volatile List<ItemDecorator> ordered;
+
+        ItemDecoratorPostProcessor(ObjectProvider<ItemDecorator> decorators) {
+            this.decorators = decorators;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof ItemRepository) && !(bean instanceof ItemService)) {
+                return bean;
+            }
+            Object result = bean;
+            for (ItemDecorator decorator : ordered()) {
+                result = decorator.decorate(result);
+            }
+            return result;
+        }
+
+        private List<ItemDecorator> ordered() {
+            List<ItemDecorator> result = ordered;
+            if (result == null) {
+                result = decorators.orderedStream().toList();
+                ordered = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package hello.springdb2.config;
+
+import hello.springdb2.repository.support.ItemFullTextIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * item.name-search=FULL_TEXT 이면 스키마 초기화( Flyway ) 뒤에 item.item_name 전문 검색 인덱스를 만든다.
+ * - 전문 검색을 지원하는 설정( JdbcTemplate, MyBatis, QueryDSL )에서 @Import 한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "item.name-search", havingValue = "FULL_TEXT")
+public class ItemFullTextConfig {
+
+    @Bean
+    @DependsOnDatabaseInitialization
+    public ItemFullTextIndex itemFullTextIndex(DataSource dataSource) {
+        ItemFullTextIndex index = new ItemFullTextIndex(dataSource);
+        index.migrate();
+        return index;
+    }
+}
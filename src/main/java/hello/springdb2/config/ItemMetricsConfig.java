@@ -0,0 +1,64 @@
+package hello.springdb2.config;
+
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.metrics.TimedItemRepository;
+import hello.springdb2.service.ItemService;
+import hello.springdb2.service.metrics.TimedItemService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 어떤 설정으로 등록된 ItemRepository, ItemService 빈이든 메서드별 메트릭 데코레이터로 감싼다.
+ * - item.metrics.enabled=false 이면 감싸지 않는다. ( 기본 켜짐 )
+ * - /actuator/metrics/item.repository.calls?tag=class:MemoryItemRepository&tag=method:findById
+ * - /actuator/metrics/item.service.calls, item.repository.results, item.service.results
+ * <p>
+ * 캐시 데코레이터( ItemCacheConfig )도 켜져 있으면 그 바깥을 감싸므로( ItemDecorator.METRICS ) class 태그는 Caching* 이 된다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "item.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemMetricsConfig {
+
+    @Bean
+    public ItemDecorator timedItemDecorator(
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new ItemDecorator() {
+            @Override
+            public int getOrder() {
+                return METRICS;
+            }
+
+            @Override
+            public Object decorate(Object bean) {
+                if (bean instanceof TimedItemRepository || bean instanceof TimedItemService) {
+                    return bean;
+                }
+
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry == null) {
+                    return bean;
+                }
+                if (bean instanceof ItemRepository itemRepository) {
+                    return new TimedItemRepository(itemRepository, implementation(bean), registry);
+                }
+                if (bean instanceof ItemService itemService) {
+                    return new TimedItemService(itemService, implementation(bean), registry);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * @Transactional 프록시면 프록시가 아닌 대상 클래스 이름
+     */
+    private static String implementation(Object bean) {
+        return ClassUtils.getUserClass(AopUtils.getTargetClass(bean)).getSimpleName();
+    }
+}
@@ -0,0 +1,82 @@
+package hello.springdb2.config;
+
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.search.LiveItemNameIndex;
+import hello.springdb2.repository.search.NameIndexedItemRepository;
+import hello.springdb2.service.ItemService;
+import hello.springdb2.service.search.NameIndexedItemService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 어떤 설정으로 등록된 ItemRepository 빈이든 NameIndexedItemRepository 로 감싸 itemName 검색을 트라이그램 색인으로 가속한다.
+ * - item.name-index.enabled=true 일 때만 감싼다. ( 기본 꺼짐, 색인이 전체 이름을 메모리에 든다. )
+ * - item.name-index.max-candidates: 후보가 이보다 많으면 원래 검색으로 ( 기본 64 )
+ * - 다른 데코레이터보다 안쪽을 감싼다. ( ItemDecorator.NAME_INDEX )
+ * - ItemService 도 감싸서 ItemRepository 를 거치지 않는 서비스( ItemServiceV2 )의 쓰기도 색인에 반영한다.
+ * - 색인은 모든 싱글톤이 만들어진 뒤, 웹 서버가 요청을 받기 전에 한 번 채운다.
+ * <p>
+ * 데코레이터를 거치지 않은 쓰기( 다른 인스턴스, 직접 실행한 SQL )는 색인에 없으므로 단일 인스턴스에서만 켠다.
+ * MemoryItemRepository 는 자체 색인이 있으므로 켤 필요가 없다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "item.name-index.enabled", havingValue = "true")
+public class ItemNameIndexConfig {
+
+    @Bean
+    public NameIndexDecorator nameIndexDecorator(
+            @Value("${item.name-index.max-candidates:64}") int maxCandidates
+    ) {
+        return new NameIndexDecorator(maxCandidates);
+    }
+
+    /**
+     * 감싼 저장소를 기억해 두었다가 afterSingletonsInstantiated 에서 색인을 채운다. ( 검색 중에 채우지 않는다. )
+     */
+    public static class NameIndexDecorator implements ItemDecorator, SmartInitializingSingleton {
+        private final LiveItemNameIndex index = new LiveItemNameIndex();
+        private final List<NameIndexedItemRepository> created = new ArrayList<>();
+        private final int maxCandidates;
+
+        NameIndexDecorator(int maxCandidates) {
+            this.maxCandidates = maxCandidates;
+        }
+
+        @Override
+        public int getOrder() {
+            return NAME_INDEX;
+        }
+
+        @Override
+        public Object decorate(Object bean) {
+            if (bean instanceof NameIndexedItemRepository || bean instanceof NameIndexedItemService) {
+                return bean;
+            }
+            if (bean instanceof ItemRepository itemRepository) {
+                NameIndexedItemRepository nameIndexedItemRepository =
+                        new NameIndexedItemRepository(itemRepository, index, maxCandidates);
+                created.add(nameIndexedItemRepository);
+                return nameIndexedItemRepository;
+            }
+            if (bean instanceof ItemService itemService) {
+                return new NameIndexedItemService(itemService, index);
+            }
+            return bean;
+        }
+
+        @Override
+        public void afterSingletonsInstantiated() {
+            long start = System.currentTimeMillis();
+            created.forEach(NameIndexedItemRepository::loadIndex);
+            log.info("item name index loaded. repositories={}, elapsedMs={}", created.size(), System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package hello.springdb2.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import hello.springdb2.repository.support.ItemCacheRegions;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * 하이버네이트 2차 캐시 ( JCache + Caffeine, 프로세스 안 )
+ * - Item 엔티티 영역과 검색 쿼리 캐시 영역을 만든다. ( ItemCacheRegions )
+ * - item.jpa-cache.enabled=false 이면 끈다. ( 기본 켜짐 )
+ * - item.jpa-cache.maximum-size, ttl-seconds: Item 영역 ( 기본 10,000건, 5분 )
+ * - item.jpa-cache.query-maximum-size, query-ttl-seconds: 검색 쿼리 영역 ( 기본 1,000건, 1분 )
+ * <p>
+ * 영역 통계는 hibernate-micrometer 로 내보낸다.
+ * - /actuator/metrics/hibernate.second.level.cache.requests?tag=region:item
+ * - /actuator/metrics/hibernate.cache.query.requests
+ */
+@Configuration
+public class JpaCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "item.jpa-cache.enabled", havingValue = "false")
+    public HibernatePropertiesCustomizer jpaCacheDisabledCustomizer() {
+        // hibernate-jcache 가 클래스패스에 있으면 설정하지 않아도 2차 캐시가 켜지므로 명시적으로 끈다.
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+
+    /**
+     * 컨텍스트마다 따로 만든다. ( 테스트처럼 한 JVM 에 여러 DB 가 떠도 캐시를 같이 쓰지 않게 )
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "item.jpa-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager itemJpaCacheManager(
+            @Value("${item.jpa-cache.maximum-size:10000}") long maximumSize,
+            @Value("${item.jpa-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${item.jpa-cache.query-maximum-size:1000}") long queryMaximumSize,
+            @Value("${item.jpa-cache.query-ttl-seconds:60}") long queryTtlSeconds
+    ) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:item-jpa-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(ItemCacheRegions.ITEM, region(maximumSize, ttlSeconds));
+        cacheManager.createCache(ItemCacheRegions.ITEM_SEARCH, region(queryMaximumSize, queryTtlSeconds));
+        return cacheManager;
+    }
+
+    /**
+     * 쿼리 캐시 무효화에 쓰는 타임스탬프 영역은 만료되면 안 되므로, 없는 영역은 제한 없이 만들게 둔다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "item.jpa-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public HibernatePropertiesCustomizer jpaCacheCustomizer(
+            CacheManager itemJpaCacheManager
+    ) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, itemJpaCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(
+            long maximumSize,
+            long ttlSeconds
+    ) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
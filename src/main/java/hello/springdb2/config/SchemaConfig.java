@@ -0,0 +1,41 @@
+package hello.springdb2.config;
+
+import hello.springdb2.repository.support.ItemNameSearchMode;
+import hello.springdb2.repository.support.ItemQueryPlanVerifier;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 스키마 마이그레이션 ( Flyway, src/main/resources/db/migration )
+ * - sql/schema.sql 로 미리 만든 DB 는 V1 기준선으로 등록하고 이후 버전만 적용한다.
+ * <p>
+ * item.query-plan.verify=true 이면 기동할 때 검색 쿼리 실행 계획을 검사하고, 인덱스를 타지 않으면 기동을 멈춘다.
+ */
+@Configuration
+public class SchemaConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer baselineOnMigrateCustomizer() {
+        return configuration -> configuration
+                .baselineOnMigrate(true)
+                .baselineVersion("1");
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "item.query-plan.verify", havingValue = "true")
+    public ApplicationRunner itemQueryPlanVerifier(
+            DataSource dataSource,
+            ObjectProvider<SqlSessionFactory> sqlSessionFactory,
+            @Value("${item.name-search:LIKE}") ItemNameSearchMode nameSearch
+    ) {
+        return args -> new ItemQueryPlanVerifier(dataSource, sqlSessionFactory.getIfAvailable(), nameSearch).verify();
+    }
+}
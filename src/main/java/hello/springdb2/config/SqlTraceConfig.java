@@ -0,0 +1,85 @@
+package hello.springdb2.config;
+
+import hello.springdb2.controller.SqlBudgetInterceptor;
+import hello.springdb2.repository.trace.SqlTracer;
+import hello.springdb2.repository.trace.TracingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 어떤 설정으로 등록된 DataSource 빈이든 TracingDataSource 로 감싸 SQL 문마다 시간, 행 수, 배치 크기를 남긴다.
+ * - item.sql-trace.enabled=true 일 때만 감싼다. ( 기본 꺼짐, 모든 JDBC 호출이 프록시를 거치므로 필요할 때만 켠다. )
+ * - item.sql-trace.slow-query-ms: 이 시간 이상 걸린 문장은 warn 로그 ( 기본 100ms )
+ * - item.sql-trace.statement-budget: ItemController 요청 하나가 실행해도 되는 문장 수 ( 기본 10 )
+ * - /actuator/metrics/item.sql.statements?tag=kind:query, item.sql.rows, item.sql.requests, item.sql.budget.exceeded
+ * <p>
+ * 후처리기는 PriorityOrdered( ORDER )이고 DataSourceRoutingConfig 보다 뒤라서 라우팅 DataSource 바깥을 감싼다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "item.sql-trace.enabled", havingValue = "true")
+public class SqlTraceConfig {
+    public static final int ORDER = DataSourceRoutingConfig.ORDER + 100;
+
+    /**
+     * BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 @Value 대신 Environment 에서 읽는다.
+     */
+    @Bean
+    public static TracingDataSourcePostProcessor tracingDataSourcePostProcessor(
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new TracingDataSourcePostProcessor(new SqlTracer(
+                meterRegistry,
+                Duration.ofMillis(environment.getProperty("item.sql-trace.slow-query-ms", Long.class, 100L))
+        ));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication
+    public WebMvcConfigurer sqlBudgetConfigurer(
+            @Value("${item.sql-trace.statement-budget:10}") int statementBudget,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SqlBudgetInterceptor(statementBudget, meterRegistry))
+                        .addPathPatterns("/items", "/items/**");
+            }
+        };
+    }
+
+    public static class TracingDataSourcePostProcessor implements BeanPostProcessor, PriorityOrdered {
+        private final SqlTracer tracer;
+
+        TracingDataSourcePostProcessor(SqlTracer tracer) {
+            this.tracer = tracer;
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                return new TracingDataSource(dataSource, tracer);
+            }
+            return bean;
+        }
+    }
+}
@@ -2,39 +2,128 @@ package hello.springdb2.controller;
 
 import hello.springdb2.domain.Item;
 import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemLookup;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.version.ItemCatalogVersion;
+import hello.springdb2.service.AsyncItemService;
 import hello.springdb2.service.ItemService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final AsyncItemService asyncItemService;
+    private final ItemCatalogVersion catalogVersion;
 
+    /**
+     * 검색은 오래 걸릴 수 있으므로 itemServiceExecutor 에서 실행하고, 서블릿 스레드는 바로 돌려준다.
+     * item.conditional-get.skip-lookup 이 켜져 있고 마지막 쓰기 이후에 받은 목록이면( ETag / Last-Modified ) 검색 없이 304 로 답한다.
+     */
     @GetMapping
-    public String items(
+    public DeferredResult<ModelAndView> items(
             @ModelAttribute("itemSearch") ItemSearchCond cond,
-            Model model
+            @ModelAttribute("pageCond") ItemPageCond pageCond,
+            ServletWebRequest request
     ) {
-        List<Item> items = itemService.findItems(cond);
-        model.addAttribute("items", items);
-        return "items";
+        ItemCatalogVersion.Stamp stamp = catalogVersion.current();
+        revalidate(request);
+        if (catalogVersion.canSkipLookup() && request.checkNotModified(ItemETags.catalog(stamp), stamp.lastModified())) {
+            return null;
+        }
+        return deferred(asyncItemService.findItemPage(cond, pageCond)
+                .thenApply(page -> new ModelAndView("items", Map.of("items", page.getItems(), "page", page))));
+    }
+
+    /**
+     * 검색 결과를 CSV 로 내려준다. 목록을 만들지 않고 읽는 대로 응답에 쓴다.
+     */
+    @GetMapping("/export")
+    public void export(
+            @ModelAttribute("itemSearch") ItemSearchCond cond,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"items.csv\"");
+
+        PrintWriter writer = response.getWriter();
+        writer.println("id,itemName,price,quantity");
+        itemService.streamItems(cond, item -> writer.println(
+                item.getId() + "," + csv(item.getItemName()) + ","
+                        + Objects.toString(item.getPrice(), "") + "," + Objects.toString(item.getQuantity(), "")
+        ));
+        writer.flush();
     }
 
+    /**
+     * 여러 id 를 한 번에 조회한다. ( /items/lookup?ids=3,1,2 )
+     * - items 는 요청한 id 순서, 없는 id 는 missingIds 로 알려준다.
+     * - id 가 ItemLookup.MAX_IDS 개를 넘으면 400
+     */
+    @GetMapping("/lookup")
+    @ResponseBody
+    public ResponseEntity<ItemLookup> lookup(
+            @RequestParam List<Long> ids
+    ) {
+        if (ids.size() > ItemLookup.MAX_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(itemService.findItemsById(ids));
+    }
+
+    /**
+     * 조건부 조회 ( ItemETags )
+     * - 지금 카탈로그 버전으로 만든 태그면 조회 없이 304 ( item.conditional-get.skip-lookup 이 켜져 있을 때만 )
+     * - 아니면 조회해서 Item.version 이 같으면 새 태그로 304, 다르면 페이지를 다시 그린다.
+     */
     @GetMapping("/{itemId}")
     public String item(
             @PathVariable long itemId,
-            Model model
+            Model model,
+            ServletWebRequest request
     ) {
+        ItemCatalogVersion.Stamp stamp = catalogVersion.current();
+        List<String> ifNoneMatch = ItemETags.parse(request.getHeaderValues(HttpHeaders.IF_NONE_MATCH));
+        revalidate(request);
+
+        String current = catalogVersion.canSkipLookup() ? ItemETags.findCurrent(ifNoneMatch, stamp) : null;
+        if (current != null && request.checkNotModified(current)) {
+            return null;
+        }
+
         Item item = itemService.findById(itemId).orElseThrow();
+        // 먼저 넣어 둔 ETag 는 checkNotModified 가 덮어쓰지 않는다.
+        request.getResponse().setHeader(HttpHeaders.ETAG, ItemETags.item(stamp, item.getVersion()));
+        String sameVersion = ItemETags.findVersion(ifNoneMatch, stamp, item.getVersion());
+        if (sameVersion != null && request.checkNotModified(sameVersion)) {
+            return null;
+        }
+
         model.addAttribute("item", item);
         return "item";
     }
@@ -73,4 +162,54 @@ public class ItemController {
         itemService.update(itemId, updateParam);
         return "redirect:/items/{itemId}";
     }
+
+    /**
+     * 수정 폼을 연 뒤 다른 수정이 먼저 반영된 경우 ( ItemUpdateDto.version )
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> conflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * 비동기 실행 스레드가 모자라 거절된 요청
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+
+    /**
+     * 브라우저가 휴리스틱으로 캐시를 그냥 쓰지 않고 매번 ETag 로 확인하게 한다.
+     */
+    private static void revalidate(ServletWebRequest request) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+    }
+
+    private static <T> DeferredResult<T> deferred(CompletableFuture<T> future) {
+        DeferredResult<T> result = new DeferredResult<>();
+        future.whenComplete((value, ex) -> {
+            if (ex == null) {
+                result.setResult(value);
+            } else {
+                result.setErrorResult(ex instanceof CompletionException ? ex.getCause() : ex);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * RFC 4180 - 쉼표, 큰따옴표, 줄바꿈( CR, LF )이 있으면 큰따옴표로 감싸고 안의 큰따옴표는 두 번 쓴다.
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
 }
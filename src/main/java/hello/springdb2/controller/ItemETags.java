@@ -0,0 +1,91 @@
+package hello.springdb2.controller;
+
+import hello.springdb2.repository.version.ItemCatalogVersion;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ItemController 의 약한 ETag ( 같은 데이터면 같은 태그, 바이트 단위 동일성은 약속하지 않는다. )
+ * - 목록: W/"epoch.sequence" - 카탈로그 버전 그대로
+ * - 상세: W/"epoch.sequence-version" - 카탈로그 버전과 Item.version
+ * <p>
+ * 상세 태그의 카탈로그 부분이 지금과 같으면 그 뒤로 쓰기가 없었으므로 조회 없이 304 ( ItemCatalogVersion.canSkipLookup 일 때만 ),
+ * 다르더라도 같은 기동( epoch )의 같은 Item.version 이면 조회 후 304 로 답한다.
+ */
+abstract class ItemETags {
+
+    static String catalog(ItemCatalogVersion.Stamp stamp) {
+        return "W/\"" + stamp.token() + "\"";
+    }
+
+    static String item(
+            ItemCatalogVersion.Stamp stamp,
+            long version
+    ) {
+        return "W/\"" + stamp.token() + "-" + version + "\"";
+    }
+
+    /**
+     * If-None-Match 의 상세 태그 중 지금 카탈로그 버전으로 만든 것 ( 없으면 null )
+     */
+    static String findCurrent(
+            List<String> ifNoneMatch,
+            ItemCatalogVersion.Stamp stamp
+    ) {
+        String prefix = stamp.token() + "-";
+        for (String tag : ifNoneMatch) {
+            if (opaque(tag).startsWith(prefix)) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * If-None-Match 의 상세 태그 중 같은 기동에서 같은 Item.version 으로 만든 것 ( 없으면 null )
+     */
+    static String findVersion(
+            List<String> ifNoneMatch,
+            ItemCatalogVersion.Stamp stamp,
+            long version
+    ) {
+        String prefix = stamp.epoch() + ".";
+        String suffix = "-" + version;
+        for (String tag : ifNoneMatch) {
+            String opaque = opaque(tag);
+            if (opaque.startsWith(prefix) && opaque.endsWith(suffix)) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * If-None-Match 헤더 값들을 태그 하나씩으로 나눈다. ( 여러 헤더, 쉼표 목록 모두 )
+     */
+    static List<String> parse(String[] headerValues) {
+        List<String> tags = new ArrayList<>();
+        if (headerValues == null) {
+            return tags;
+        }
+        for (String value : headerValues) {
+            for (String tag : StringUtils.tokenizeToStringArray(value, ",")) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * W/ 와 따옴표를 뗀 본문
+     */
+    private static String opaque(String tag) {
+        String value = tag.startsWith("W/") ? tag.substring(2) : tag;
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
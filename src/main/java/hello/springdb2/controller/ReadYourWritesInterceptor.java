@@ -0,0 +1,94 @@
+package hello.springdb2.controller;
+
+import hello.springdb2.repository.routing.ReadYourWrites;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+
+/**
+ * 클라이언트별 read-your-writes 창을 쿠키로 들고 다닌다.
+ * - 쿠키 값은 주 DB 에서 읽어야 하는 마지막 시각( epoch ms ), 요청을 처리하는 동안 ReadYourWrites 로 bind 한다.
+ * - 요청 중 쓰기가 있어 창이 늘어나면 응답에 쿠키를 다시 싣는다. ( 수정 후 redirect 된 상세 조회도 주 DB 에서 읽는다. )
+ * <p>
+ * 쿠키를 지어내도 주 DB 에서 읽게 될 뿐이므로 서명하지 않는다.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+    public static final String COOKIE_NAME = "item-primary-until";
+    private static final String WINDOW = ReadYourWritesInterceptor.class.getName() + ".WINDOW";
+    private static final String RECEIVED = ReadYourWritesInterceptor.class.getName() + ".RECEIVED";
+
+    private final int maxAgeSeconds;
+
+    public ReadYourWritesInterceptor(Duration stickiness) {
+        this.maxAgeSeconds = (int) Math.max(1, (stickiness.toMillis() + 999) / 1000);
+    }
+
+    @Override
+    public boolean preHandle(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler
+    ) {
+        ReadYourWrites window = (ReadYourWrites) request.getAttribute(WINDOW);
+        if (window == null) {
+            long received = primaryUntil(WebUtils.getCookie(request, COOKIE_NAME));
+            window = new ReadYourWrites(received);
+            request.setAttribute(WINDOW, window);
+            request.setAttribute(RECEIVED, received);
+        }
+        ReadYourWrites.bind(window);
+        return true;
+    }
+
+    @Override
+    public void postHandle(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            ModelAndView modelAndView
+    ) {
+        ReadYourWrites window = (ReadYourWrites) request.getAttribute(WINDOW);
+        if (window != null && window.getPrimaryUntil() > (long) request.getAttribute(RECEIVED)) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(window.getPrimaryUntil()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(maxAgeSeconds);
+            response.addCookie(cookie);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler
+    ) {
+        ReadYourWrites.unbind();
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            Exception ex
+    ) {
+        ReadYourWrites.unbind();
+    }
+
+    private static long primaryUntil(Cookie cookie) {
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package hello.springdb2.controller;
+
+import hello.springdb2.repository.trace.SqlStatementCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * 요청 하나가 실행한 SQL 문 수를 세고, 예산을 넘긴 요청을 표시한다.
+ * - 메트릭: item.sql.requests ( 요청당 문장 수 ), item.sql.budget.exceeded ( 넘긴 요청 수 ), 태그 handler
+ * - 예산을 넘기면 warn 로그를 남긴다.
+ * <p>
+ * DeferredResult 요청은 첫 디스패치와 비동기 디스패치 양쪽에서 같은 카운터를 쓰도록 요청 속성에 둔다.
+ * itemServiceExecutor 스레드로는 TaskDecorator ( SqlStatementCounter::propagate ) 가 넘겨준다.
+ */
+@Slf4j
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor {
+    private static final String COUNTER = SqlBudgetInterceptor.class.getName() + ".COUNTER";
+
+    private final int statementBudget;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SqlBudgetInterceptor(
+            int statementBudget,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this.statementBudget = statementBudget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler
+    ) {
+        SqlStatementCounter counter = (SqlStatementCounter) request.getAttribute(COUNTER);
+        if (counter == null) {
+            counter = new SqlStatementCounter();
+            request.setAttribute(COUNTER, counter);
+        }
+        SqlStatementCounter.bind(counter);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler
+    ) {
+        SqlStatementCounter.unbind();
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            Exception ex
+    ) {
+        SqlStatementCounter.unbind();
+        SqlStatementCounter counter = (SqlStatementCounter) request.getAttribute(COUNTER);
+        if (counter == null) {
+            return;
+        }
+
+        String handlerName = handlerName(handler);
+        int statements = counter.getStatements();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            DistributionSummary.builder("item.sql.requests").tag("handler", handlerName).register(registry).record(statements);
+        }
+        if (statements > statementBudget) {
+            if (registry != null) {
+                Counter.builder("item.sql.budget.exceeded").tag("handler", handlerName).register(registry).increment();
+            }
+            log.warn("sql statement budget exceeded. handler={}, uri={}, statements={}, rows={}, budget={}",
+                    handlerName, request.getRequestURI(), statements, counter.getRows(), statementBudget);
+        }
+    }
+
+    private static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return "unknown";
+    }
+}
@@ -1,14 +1,24 @@
 package hello.springdb2.domain;
 
 import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.support.ItemCacheRegions;
+import hello.springdb2.repository.support.ItemVersions;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @NoArgsConstructor
 @Table(name = "item")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ItemCacheRegions.ITEM)
+@NamedQuery(name = "Item.searchAll", query = "select i from Item i")
+@NamedQuery(name = "Item.searchByItemName", query = "select i from Item i where i.itemName like concat('%', :itemName, '%')")
+@NamedQuery(name = "Item.searchByMaxPrice", query = "select i from Item i where i.price <= :maxPrice")
+@NamedQuery(name = "Item.searchByItemNameAndMaxPrice", query = "select i from Item i where i.itemName like concat('%', :itemName, '%') and i.price <= :maxPrice")
 public class Item {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,6 +29,13 @@ public class Item {
     private Integer price;
     private Integer quantity;
 
+    /**
+     * 수정할 때마다 1 씩 오른다. ( 저장 전 null, 저장하면 0 )
+     * 변경 감지로 수정하면 JPA 가 where version = ? 로 확인하고 올리고, 벌크 update 는 직접 올린다. ( ItemVersions )
+     */
+    @Version
+    private Long version;
+
     public Item(
             String itemName,
             Integer price,
@@ -29,9 +46,13 @@ public class Item {
         this.quantity = quantity;
     }
 
+    /**
+     * dto.version 이 있으면 지금 버전과 같아야 한다. ( 버전 증가는 JPA 가 flush 할 때 한다. )
+     */
     public void update(
             ItemUpdateDto dto
     ) {
+        ItemVersions.check(this, dto);
         this.itemName = dto.getItemName();
         this.price = dto.getPrice();
         this.quantity = dto.getQuantity();
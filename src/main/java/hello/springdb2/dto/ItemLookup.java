@@ -0,0 +1,58 @@
+package hello.springdb2.dto;
+
+import hello.springdb2.domain.Item;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 id 조회 결과
+ * - items: 요청한 id 순서 ( 중복 id 는 처음 한 번만 )
+ * - missingIds: 없는 id, 요청한 순서
+ */
+@Getter
+public class ItemLookup {
+    public static final int MAX_IDS = 1000;
+
+    private final List<Item> items;
+    private final List<Long> missingIds;
+
+    private ItemLookup(
+            List<Item> items,
+            List<Long> missingIds
+    ) {
+        this.items = items;
+        this.missingIds = missingIds;
+    }
+
+    /**
+     * 리포지토리가 순서와 상관없이 찾아온 결과를 요청 순서로 맞춘다.
+     */
+    public static ItemLookup of(
+            Collection<Long> requestedIds,
+            Collection<Item> found
+    ) {
+        Map<Long, Item> byId = new HashMap<>();
+        found.forEach(item -> byId.put(item.getId(), item));
+
+        List<Item> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(requestedIds)) {
+            if (id == null) {
+                continue;
+            }
+            Item item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new ItemLookup(items, missingIds);
+    }
+}
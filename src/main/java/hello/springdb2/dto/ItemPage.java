@@ -0,0 +1,54 @@
+package hello.springdb2.dto;
+
+import hello.springdb2.domain.Item;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 키셋 페이지 결과 ( items 는 항상 id 오름차순 )
+ */
+@Getter
+public class ItemPage {
+    private final List<Item> items;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    private ItemPage(
+            List<Item> items,
+            boolean hasPrevious,
+            boolean hasNext
+    ) {
+        this.items = items;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * 리포지토리가 page.getFetchSize() 만큼 조회한 결과로 페이지를 만든다.
+     * - 정방향은 id 오름차순, 역방향은 id 내림차순으로 조회된 결과여야 한다.
+     */
+    public static ItemPage of(
+            List<Item> fetched,
+            ItemPageCond page
+    ) {
+        boolean hasMore = fetched.size() > page.getSize();
+        List<Item> items = new ArrayList<>(hasMore ? fetched.subList(0, page.getSize()) : fetched);
+
+        if (page.isBackward()) {
+            Collections.reverse(items);
+            return new ItemPage(items, hasMore, true);
+        }
+        return new ItemPage(items, page.getAfterId() != null, hasMore);
+    }
+
+    public Long getFirstId() {
+        return items.isEmpty() ? null : items.get(0).getId();
+    }
+
+    public Long getLastId() {
+        return items.isEmpty() ? null : items.get(items.size() - 1).getId();
+    }
+}
@@ -0,0 +1,50 @@
+package hello.springdb2.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+/**
+ * 키셋 페이지 조건
+ * - afterId: 이 id 보다 큰 항목부터 id 오름차순 ( 다음 페이지 )
+ * - beforeId: 이 id 보다 작은 항목부터 id 내림차순 ( 이전 페이지 )
+ * - size: 1 ~ MAX_SIZE, 없으면 DEFAULT_SIZE
+ */
+@Getter
+public class ItemPageCond {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final Long afterId;
+    private final Long beforeId;
+    private final int size;
+
+    @JsonCreator
+    public ItemPageCond(
+            @JsonProperty("afterId") Long afterId,
+            @JsonProperty("beforeId") Long beforeId,
+            @JsonProperty("size") Integer size
+    ) {
+        this.afterId = afterId;
+        this.beforeId = beforeId;
+        this.size = size == null || size <= 0 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+    }
+
+    public static ItemPageCond first() {
+        return new ItemPageCond(null, null, null);
+    }
+
+    /**
+     * beforeId 가 있으면 이전 페이지 방향 ( afterId 보다 우선 )
+     */
+    public boolean isBackward() {
+        return beforeId != null;
+    }
+
+    /**
+     * 다음 항목이 더 있는지 알기 위해 한 건 더 조회한다.
+     */
+    public int getFetchSize() {
+        return size + 1;
+    }
+}
@@ -2,9 +2,14 @@ package hello.springdb2.dto;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import org.springframework.util.StringUtils;
+
+import java.util.Objects;
 
 @Getter
+@EqualsAndHashCode
 public class ItemSearchCond {
     private final String itemName;
     private final Integer maxPrice;
@@ -17,4 +22,16 @@ public class ItemSearchCond {
         this.itemName = itemName;
         this.maxPrice = maxPrice;
     }
+
+    /**
+     * 같은 결과를 내는 조건은 같은 값이 되도록 정리한다. ( 캐시 키 )
+     * - 빈 문자열 itemName 은 조건 없음( null )과 같다.
+     */
+    public ItemSearchCond normalized() {
+        String name = StringUtils.hasLength(itemName) ? itemName : null;
+        if (Objects.equals(name, itemName)) {
+            return this;
+        }
+        return new ItemSearchCond(name, maxPrice);
+    }
 }
@@ -10,14 +10,22 @@ public class ItemUpdateDto {
     private final Integer price;
     private final Integer quantity;
 
+    /**
+     * 수정 폼을 읽을 때의 Item.version - 그 사이 다른 수정이 있었으면 OptimisticLockingFailureException
+     * null 이면 버전을 확인하지 않는다.
+     */
+    private final Long version;
+
     @JsonCreator
     public ItemUpdateDto(
             @JsonProperty("itemName") String itemName,
             @JsonProperty("price") Integer price,
-            @JsonProperty("quantity") Integer quantity
+            @JsonProperty("quantity") Integer quantity,
+            @JsonProperty("version") Long version
     ) {
         this.itemName = itemName;
         this.price = price;
         this.quantity = quantity;
+        this.version = version;
     }
 }
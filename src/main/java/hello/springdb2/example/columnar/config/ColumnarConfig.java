@@ -0,0 +1,29 @@
+package hello.springdb2.example.columnar.config;
+
+import hello.springdb2.example.columnar.repository.ColumnarItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.service.ItemService;
+import hello.springdb2.service.ItemServiceV1;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * item.columnar.initial-capacity: 처음 잡아 둘 건수 ( 기본 1,024, 많이 넣을 예정이면 늘려서 배열 복사를 줄인다. )
+ */
+@Configuration
+public class ColumnarConfig {
+
+    @Value("${item.columnar.initial-capacity:1024}")
+    private int initialCapacity;
+
+    @Bean
+    public ItemService itemService() {
+        return new ItemServiceV1(itemRepository());
+    }
+
+    @Bean
+    public ItemRepository itemRepository() {
+        return new ColumnarItemRepository(initialCapacity);
+    }
+}
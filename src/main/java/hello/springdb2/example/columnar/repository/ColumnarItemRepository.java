@@ -0,0 +1,400 @@
+package hello.springdb2.example.columnar.repository;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.support.ItemVersions;
+import org.springframework.util.ObjectUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 열 단위 메모리 저장소 - Item 객체 대신 기본형 배열에 나눠 담는다.
+ * - 슬롯 i 의 값: ids[i], prices[i], quantities[i], versions[i], 이름은 names 아레나의 ( nameOffsets[i], nameLengths[i] )
+ * - id -> 슬롯은 LongIntHashMap, null 값은 flags 비트로 표시한다.
+ * - id 는 저장소가 순서대로 발급하고 슬롯은 뒤에만 붙으므로, 슬롯 순서가 곧 id 순서다. ( 키셋 페이지는 이진 탐색 )
+ * - 검색은 배열을 처음부터 훑고, 조건에 맞는 행만 Item 으로 만든다. 이름은 UTF-8 바이트 그대로 비교한다.
+ * <p>
+ * 한 건당 약 58바이트 ( id 8, 가격 4, 수량 4, 버전 8, 플래그 1, 이름 위치 5, 이름 10 이하, id 맵 약 16 )
+ * 쓰기는 쓰기 락으로 직렬화하고, 읽기는 읽기 락 안에서 배열을 훑는다.
+ */
+public class ColumnarItemRepository implements ItemRepository {
+    /**
+     * 스키마의 item_name 길이 제한 ( varchar(10) )
+     */
+    public static final int MAX_NAME_LENGTH = 10;
+
+    private static final byte PRICE_NULL = 1;
+    private static final byte QUANTITY_NULL = 2;
+    private static final byte NAME_NULL = 4;
+
+    /**
+     * streamAll 은 이만큼씩 Item 으로 만든 뒤 락을 풀고 넘긴다.
+     */
+    private static final int STREAM_CHUNK_SIZE = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap slots;
+    private final NameArena names;
+
+    private long[] ids;
+    private int[] prices;
+    private int[] quantities;
+    private long[] versions;
+    private byte[] flags;
+    private int[] nameOffsets;
+    private byte[] nameLengths;
+    private int size;
+    private long sequence;
+
+    public ColumnarItemRepository() {
+        this(1024);
+    }
+
+    public ColumnarItemRepository(int initialCapacity) {
+        this.slots = new LongIntHashMap(initialCapacity);
+        this.names = new NameArena(initialCapacity * MAX_NAME_LENGTH);
+        this.ids = new long[initialCapacity];
+        this.prices = new int[initialCapacity];
+        this.quantities = new int[initialCapacity];
+        this.versions = new long[initialCapacity];
+        this.flags = new byte[initialCapacity];
+        this.nameOffsets = new int[initialCapacity];
+        this.nameLengths = new byte[initialCapacity];
+    }
+
+    @Override
+    public Item save(
+            Item item
+    ) {
+        byte[] name = encodeName(item.getItemName());
+        lock.writeLock().lock();
+        try {
+            append(item, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return item;
+    }
+
+    @Override
+    public List<Item> saveAll(
+            Collection<Item> items
+    ) {
+        byte[][] encodedNames = items.stream().map(item -> encodeName(item.getItemName())).toArray(byte[][]::new);
+        lock.writeLock().lock();
+        try {
+            int i = 0;
+            for (Item item : items) {
+                append(item, encodedNames[i++]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new ArrayList<>(items);
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        byte[] name = encodeName(updateParam.getItemName());
+        lock.writeLock().lock();
+        try {
+            int slot = itemId == null ? -1 : slots.get(itemId);
+            if (slot < 0) {
+                ItemVersions.checkUpdated(0, itemId, updateParam);
+                return;
+            }
+            ItemVersions.check(itemId, versions[slot], updateParam);
+            writeName(slot, name);
+            writeValues(slot, updateParam.getPrice(), updateParam.getQuantity(), name == null);
+            versions[slot]++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(
+            Long id
+    ) {
+        lock.readLock().lock();
+        try {
+            int slot = id == null ? -1 : slots.get(id);
+            return slot < 0 ? Optional.empty() : Optional.of(materialize(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 읽기 락 한 번 안에서 id 맵으로 슬롯을 찾는다.
+     */
+    @Override
+    public List<Item> findAllById(
+            Collection<Long> ids
+    ) {
+        List<Item> result = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (Long id : new LinkedHashSet<>(ids)) {
+                int slot = id == null ? -1 : slots.get(id);
+                if (slot >= 0) {
+                    result.add(materialize(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public List<Item> findAll(
+            ItemSearchCond cond
+    ) {
+        byte[] pattern = pattern(cond.getItemName());
+        Integer maxPrice = cond.getMaxPrice();
+
+        List<Item> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                if (matches(slot, pattern, maxPrice)) {
+                    result.add(materialize(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public List<Item> findPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        byte[] pattern = pattern(cond.getItemName());
+        Integer maxPrice = cond.getMaxPrice();
+
+        List<Item> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (page.isBackward()) {
+                for (int slot = lowerBound(page.getBeforeId()) - 1; slot >= 0 && result.size() < page.getFetchSize(); slot--) {
+                    if (matches(slot, pattern, maxPrice)) {
+                        result.add(materialize(slot));
+                    }
+                }
+            } else {
+                int start = page.getAfterId() == null ? 0 : upperBound(page.getAfterId());
+                for (int slot = start; slot < size && result.size() < page.getFetchSize(); slot++) {
+                    if (matches(slot, pattern, maxPrice)) {
+                        result.add(materialize(slot));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * 슬롯은 옮겨지지 않으므로, 조각마다 락을 풀고 다음 슬롯부터 이어서 읽는다. ( action 이 쓰기를 해도 막히지 않는다. )
+     */
+    @Override
+    public void streamAll(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        byte[] pattern = pattern(cond.getItemName());
+        Integer maxPrice = cond.getMaxPrice();
+
+        List<Item> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        int slot = 0;
+        while (true) {
+            lock.readLock().lock();
+            try {
+                for (; slot < size && chunk.size() < STREAM_CHUNK_SIZE; slot++) {
+                    if (matches(slot, pattern, maxPrice)) {
+                        chunk.add(materialize(slot));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (chunk.isEmpty()) {
+                return;
+            }
+            chunk.forEach(action);
+            chunk.clear();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clearStore() {
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            names.clear();
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(
+            Item item,
+            byte[] name
+    ) {
+        if (size == ids.length) {
+            grow();
+        }
+
+        int slot = size++;
+        item.setId(++sequence);
+        item.setVersion(ItemVersions.INITIAL);
+        ids[slot] = item.getId();
+        versions[slot] = ItemVersions.INITIAL;
+        slots.put(item.getId(), slot);
+        nameOffsets[slot] = name == null ? 0 : names.append(name);
+        nameLengths[slot] = (byte) (name == null ? 0 : name.length);
+        writeValues(slot, item.getPrice(), item.getQuantity(), name == null);
+    }
+
+    /**
+     * 새 이름이 기존 자리보다 길면 아레나 끝에 새로 붙인다. ( 이전 바이트는 버려진다. )
+     */
+    private void writeName(
+            int slot,
+            byte[] name
+    ) {
+        if (name == null) {
+            return;
+        }
+        if (name.length <= nameLengths[slot] && (flags[slot] & NAME_NULL) == 0) {
+            names.overwrite(nameOffsets[slot], name);
+        } else {
+            nameOffsets[slot] = names.append(name);
+        }
+        nameLengths[slot] = (byte) name.length;
+    }
+
+    private void writeValues(
+            int slot,
+            Integer price,
+            Integer quantity,
+            boolean nameNull
+    ) {
+        byte flag = 0;
+        if (price == null) {
+            flag |= PRICE_NULL;
+        }
+        if (quantity == null) {
+            flag |= QUANTITY_NULL;
+        }
+        if (nameNull) {
+            flag |= NAME_NULL;
+        }
+        prices[slot] = price == null ? 0 : price;
+        quantities[slot] = quantity == null ? 0 : quantity;
+        flags[slot] = flag;
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+        nameLengths = Arrays.copyOf(nameLengths, capacity);
+    }
+
+    /**
+     * MemoryItemRepository 와 같은 조건 - 이름 부분 일치, price <= maxPrice ( null 가격은 제외 )
+     */
+    private boolean matches(
+            int slot,
+            byte[] pattern,
+            Integer maxPrice
+    ) {
+        if (maxPrice != null && ((flags[slot] & PRICE_NULL) != 0 || prices[slot] > maxPrice)) {
+            return false;
+        }
+        if (pattern == null) {
+            return true;
+        }
+        return (flags[slot] & NAME_NULL) == 0 && names.contains(nameOffsets[slot], nameLengths[slot], pattern);
+    }
+
+    private Item materialize(int slot) {
+        byte flag = flags[slot];
+        Item item = new Item(
+                (flag & NAME_NULL) != 0 ? null : names.read(nameOffsets[slot], nameLengths[slot]),
+                (flag & PRICE_NULL) != 0 ? null : prices[slot],
+                (flag & QUANTITY_NULL) != 0 ? null : quantities[slot]
+        );
+        item.setId(ids[slot]);
+        item.setVersion(versions[slot]);
+        return item;
+    }
+
+    /**
+     * id > afterId 인 첫 슬롯
+     */
+    private int upperBound(long afterId) {
+        int pos = Arrays.binarySearch(ids, 0, size, afterId);
+        return pos >= 0 ? pos + 1 : -(pos + 1);
+    }
+
+    /**
+     * id >= beforeId 인 첫 슬롯
+     */
+    private int lowerBound(long beforeId) {
+        int pos = Arrays.binarySearch(ids, 0, size, beforeId);
+        return pos >= 0 ? pos : -(pos + 1);
+    }
+
+    /**
+     * UTF-8 은 글자 경계가 바이트만으로 구분되므로, 바이트 부분 일치가 곧 문자열 부분 일치다.
+     */
+    private static byte[] pattern(String itemName) {
+        return ObjectUtils.isEmpty(itemName) ? null : itemName.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encodeName(String itemName) {
+        if (itemName == null) {
+            return null;
+        }
+        if (itemName.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("itemName 은 " + MAX_NAME_LENGTH + "자 이하여야 합니다: " + itemName);
+        }
+        return itemName.getBytes(StandardCharsets.UTF_8);
+    }
+}
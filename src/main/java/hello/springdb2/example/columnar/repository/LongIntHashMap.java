@@ -0,0 +1,100 @@
+package hello.springdb2.example.columnar.repository;
+
+import java.util.Arrays;
+
+/**
+ * long -> int 맵 ( 박싱 없는 오픈 어드레싱, 선형 탐사 )
+ * - 키 0 은 빈 칸 표시로 쓰므로 넣을 수 없다. ( id 는 1 부터 시작한다. )
+ * - 삭제는 없다. 부하율 0.75 를 넘으면 두 배로 늘린다.
+ * - 동기화하지 않는다. ( 호출자가 락으로 보호 )
+ */
+class LongIntHashMap {
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private int shift;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / 0.75f)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /**
+     * @return 값, 없으면 -1
+     */
+    int get(long key) {
+        if (key == 0) {
+            return MISSING;
+        }
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == 0) {
+                return MISSING;
+            }
+        }
+    }
+
+    void put(long key, int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key 0 is reserved");
+        }
+        if (size + 1 > (mask + 1) * 3L / 4) {
+            resize();
+        }
+        insert(key, value);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(long key, int value) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            if (keys[i] == 0) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        shift--;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * 연속된 id 가 이웃 칸에 몰리지 않도록 섞는다. ( 피보나치 해싱 )
+     */
+    private int index(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+}
@@ -0,0 +1,69 @@
+package hello.springdb2.example.columnar.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 이름 UTF-8 바이트를 이어 붙여 담는 하나의 byte[] ( 문자열 객체, 배열 헤더 없음 )
+ * - 위치( offset )와 길이는 호출자가 슬롯마다 들고 있다.
+ * - 동기화하지 않는다. ( 호출자가 락으로 보호 )
+ */
+class NameArena {
+    private byte[] bytes;
+    private int size;
+
+    NameArena(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * @return 붙인 위치
+     */
+    int append(byte[] name) {
+        if (size + name.length > bytes.length) {
+            long capacity = Math.max((long) size + name.length, bytes.length + ((long) bytes.length >> 1));
+            if (capacity > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("name arena is full. size=" + size);
+            }
+            bytes = Arrays.copyOf(bytes, (int) capacity);
+        }
+
+        int offset = size;
+        System.arraycopy(name, 0, bytes, offset, name.length);
+        size += name.length;
+        return offset;
+    }
+
+    void overwrite(int offset, byte[] name) {
+        System.arraycopy(name, 0, bytes, offset, name.length);
+    }
+
+    String read(int offset, int length) {
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * [offset, offset + length) 안에 pattern 이 있는지 ( 이름이 짧으므로 단순 비교 )
+     */
+    boolean contains(int offset, int length, byte[] pattern) {
+        int last = offset + length - pattern.length;
+        byte first = pattern[0];
+        for (int i = offset; i <= last; i++) {
+            if (bytes[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < pattern.length && bytes[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -1,20 +1,31 @@
 package hello.springdb2.example.jdbctemplate.config;
 
+import hello.springdb2.config.ItemFullTextConfig;
 import hello.springdb2.example.jdbctemplate.repository.JdbcTemplateItemRepositoryV2;
 import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.support.ItemNameSearchMode;
 import hello.springdb2.service.ItemService;
 import hello.springdb2.service.ItemServiceV1;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 import javax.sql.DataSource;
 
 @Configuration
 @RequiredArgsConstructor
+@Import(ItemFullTextConfig.class)
 public class JdbcTemplateV2Config {
     private final DataSource dataSource;
 
+    @Value("${item.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${item.name-search:LIKE}")
+    private ItemNameSearchMode nameSearch;
+
     @Bean
     public ItemService itemService() {
         return new ItemServiceV1(itemRepository());
@@ -22,6 +33,6 @@ public class JdbcTemplateV2Config {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new JdbcTemplateItemRepositoryV2(dataSource);
+        return new JdbcTemplateItemRepositoryV2(dataSource, batchSize, nameSearch);
     }
 }
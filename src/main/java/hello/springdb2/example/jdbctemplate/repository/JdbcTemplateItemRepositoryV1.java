@@ -1,24 +1,37 @@
 package hello.springdb2.example.jdbctemplate.repository;
 
 import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.support.ItemBatchInsert;
+import hello.springdb2.repository.support.ItemIdChunks;
+import hello.springdb2.repository.support.ItemNameSearchMode;
+import hello.springdb2.repository.support.ItemSearchShape;
+import hello.springdb2.repository.support.ItemSearchSql;
+import hello.springdb2.repository.support.ItemVersions;
+import hello.springdb2.repository.support.RowMappers;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
-import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
 import java.sql.PreparedStatement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * JDBC Template
@@ -26,12 +39,39 @@ import java.util.Optional;
 @Slf4j
 @Repository
 public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final RowMapper<Item> ITEM_ROW_MAPPER = RowMappers.of(Item.class, "id", "item_name", "price", "quantity", "version");
+
     private final JdbcTemplate template;
+    private final JdbcTemplate streamTemplate;
+    private final int batchSize;
+    private final ItemSearchSql searchSql;
 
     public JdbcTemplateItemRepositoryV1(
             DataSource dataSource
     ) {
+        this(dataSource, ItemBatchInsert.DEFAULT_BATCH_SIZE);
+    }
+
+    public JdbcTemplateItemRepositoryV1(
+            DataSource dataSource,
+            int batchSize
+    ) {
+        this(dataSource, batchSize, ItemNameSearchMode.LIKE);
+    }
+
+    public JdbcTemplateItemRepositoryV1(
+            DataSource dataSource,
+            int batchSize,
+            ItemNameSearchMode nameSearch
+    ) {
+        this.batchSize = batchSize;
+        this.searchSql = ItemSearchSql.positional(nameSearch);
         this.template = new JdbcTemplate(dataSource);
+
+        // 스트리밍 조회는 fetch size 단위로 나눠 읽는다.
+        this.streamTemplate = new JdbcTemplate(dataSource);
+        this.streamTemplate.setFetchSize(STREAM_FETCH_SIZE);
     }
 
     @Override
@@ -48,23 +88,39 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
         }, keyHolder);
 
         item.setId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+        item.setVersion(ItemVersions.INITIAL);
         return item;
     }
 
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        long start = System.nanoTime();
+        template.execute((ConnectionCallback<Void>) con -> {
+            ItemBatchInsert.insert(con, items, batchSize);
+            return null;
+        });
+
+        log.info("saveAll rows={}, rows/sec={}", items.size(), ItemBatchInsert.rowsPerSecond(items.size(), start));
+        return new ArrayList<>(items);
+    }
+
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
-        String sql = "update item set item_name=?, price=?, quantity=? where id=?";
-        template.update(sql,
+        String sql = "update item set item_name=?, price=?, quantity=?, version=version+1"
+                + " where id=? and version=coalesce(?, version)";
+        int updatedRows = template.update(sql,
                 updateParam.getItemName(),
                 updateParam.getPrice(),
                 updateParam.getQuantity(),
-                itemId
+                itemId,
+                new SqlParameterValue(Types.BIGINT, updateParam.getVersion())
         );
+        ItemVersions.checkUpdated(updatedRows, itemId, updateParam);
     }
 
     @Override
     public Optional<Item> findById(Long id) {
-        String sql = "select id, item_name, price, quantity from item where id = ?";
+        String sql = "select id, item_name, price, quantity, version from item where id = ?";
         try {
             Item item = template.queryForObject(sql, itemRowMapper(), id);
             return Optional.of(Objects.requireNonNull(item));
@@ -73,53 +129,65 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
         }
     }
 
+    /**
+     * ItemIdChunks 조각마다 in (?, ?, ...) 한 번 - 조각 크기별로 SQL 이 고정된다.
+     */
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        List<Item> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : ItemIdChunks.chunks(ids)) {
+            String sql = "select id, item_name, price, quantity, version from item where id in (" + ItemIdChunks.placeholders(chunk.size()) + ")";
+            result.addAll(template.query(sql, itemRowMapper(), chunk.toArray()));
+        }
+        return result;
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
-        String itemName = cond.getItemName();
-        Integer maxPrice = cond.getMaxPrice();
-
-        String sql = "select id, item_name, price, quantity from item";
-        List<Object> param = new ArrayList<>();
-
-        // 동적 쿼리
-        // 1. itemName 이나 maxPrice 에 값이 있는 경우
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
-            sql += " where";
-
-            boolean andFlag = false;
-
-            // 2. itemName 에 값이 있는 경우
-            if (StringUtils.hasText(itemName)) {
-                sql += " item_name like concat('%', ?, '%')";
-                param.add(itemName);
-                andFlag = true;
-            }
-
-            // 3. maxPrice 에 값이 있는 경우
-            if (maxPrice != null) {
-                // 3-1. itemName, maxPrice 둘 다 값이 있는 경우
-                if (andFlag) {
-                    sql += " and";
-                }
-                sql += " price <= ?";
-                param.add(maxPrice);
-            }
+        ItemSearchShape shape = ItemSearchShape.of(cond);
+        return template.query(searchSql.findAll(shape), itemRowMapper(), searchParams(shape, cond).toArray());
+    }
+
+    @Override
+    public void streamAll(ItemSearchCond cond, Consumer<Item> action) {
+        ItemSearchShape shape = ItemSearchShape.of(cond);
+
+        RowMapper<Item> rowMapper = itemRowMapper();
+        RowCallbackHandler handler = rs -> action.accept(rowMapper.mapRow(rs, rs.getRow()));
+        streamTemplate.query(searchSql.findAll(shape), handler, searchParams(shape, cond).toArray());
+    }
+
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, ItemPageCond page) {
+        ItemSearchShape shape = ItemSearchShape.of(cond);
+
+        // 키셋 조건
+        List<Object> param = searchParams(shape, cond);
+        if (page.isBackward()) {
+            param.add(page.getBeforeId());
+        } else if (page.getAfterId() != null) {
+            param.add(page.getAfterId());
         }
+        param.add(page.getFetchSize());
 
-        // 4. 최종 sql 문 출력
-        log.info("sql = {}", sql);
-        return template.query(sql, itemRowMapper(), param.toArray());
+        return template.query(searchSql.findPage(shape, page), itemRowMapper(), param.toArray());
+    }
+
+    /**
+     * 모양별 SQL 의 ? 순서대로 파라미터를 담는다.
+     */
+    private List<Object> searchParams(ItemSearchShape shape, ItemSearchCond cond) {
+        List<Object> param = new ArrayList<>(4);
+        if (shape.hasItemName()) {
+            param.add(cond.getItemName());
+        }
+        if (shape.hasMaxPrice()) {
+            param.add(cond.getMaxPrice());
+        }
+        return param;
     }
 
     private RowMapper<Item> itemRowMapper() {
-        return (rs, rowNum) -> {
-            Item item = new Item(
-                    rs.getString("item_name"),
-                    rs.getInt("price"),
-                    rs.getInt("quantity")
-            );
-            item.setId(rs.getLong("id"));
-            return item;
-        };
+        return ITEM_ROW_MAPPER;
     }
 }
@@ -1,12 +1,22 @@
 package hello.springdb2.example.jdbctemplate.repository;
 
 import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.support.ItemBatchInsert;
+import hello.springdb2.repository.support.ItemIdChunks;
+import hello.springdb2.repository.support.ItemNameSearchMode;
+import hello.springdb2.repository.support.ItemSearchShape;
+import hello.springdb2.repository.support.ItemSearchSql;
+import hello.springdb2.repository.support.ItemVersions;
+import hello.springdb2.repository.support.RowMappers;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -15,13 +25,16 @@ import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
-import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * NamedParameterJdbcTemplate
@@ -30,17 +43,45 @@ import java.util.Optional;
  * - MapSqlParameterSource
  * Map
  * <p>
- * BeanPropertyRowMapper
+ * RowMappers ( BeanPropertyRowMapper 대신 )
  */
 @Slf4j
 @Repository
 public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final RowMapper<Item> ITEM_ROW_MAPPER = RowMappers.of(Item.class, "id", "item_name", "price", "quantity", "version");
+
     private final NamedParameterJdbcTemplate template;
+    private final NamedParameterJdbcTemplate streamTemplate;
+    private final int batchSize;
+    private final ItemSearchSql searchSql;
 
     public JdbcTemplateItemRepositoryV2(
             DataSource dataSource
     ) {
+        this(dataSource, ItemBatchInsert.DEFAULT_BATCH_SIZE);
+    }
+
+    public JdbcTemplateItemRepositoryV2(
+            DataSource dataSource,
+            int batchSize
+    ) {
+        this(dataSource, batchSize, ItemNameSearchMode.LIKE);
+    }
+
+    public JdbcTemplateItemRepositoryV2(
+            DataSource dataSource,
+            int batchSize,
+            ItemNameSearchMode nameSearch
+    ) {
+        this.batchSize = batchSize;
+        this.searchSql = ItemSearchSql.named(nameSearch);
         this.template = new NamedParameterJdbcTemplate(dataSource);
+
+        // 스트리밍 조회는 fetch size 단위로 나눠 읽는다.
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(STREAM_FETCH_SIZE);
+        this.streamTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
     }
 
     @Override
@@ -52,25 +93,41 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
         template.update(sql, param, keyHolder);
 
         item.setId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+        item.setVersion(ItemVersions.INITIAL);
         return item;
     }
 
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        long start = System.nanoTime();
+        template.getJdbcOperations().execute((ConnectionCallback<Void>) con -> {
+            ItemBatchInsert.insert(con, items, batchSize);
+            return null;
+        });
+
+        log.info("saveAll rows={}, rows/sec={}", items.size(), ItemBatchInsert.rowsPerSecond(items.size(), start));
+        return new ArrayList<>(items);
+    }
+
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
-        String sql = "update item set item_name=:itemName, price=:price, quantity=:quantity where id=:id";
+        String sql = "update item set item_name=:itemName, price=:price, quantity=:quantity, version=version+1"
+                + " where id=:id and version=coalesce(:version, version)";
 
         SqlParameterSource param = new MapSqlParameterSource()
                 .addValue("itemName", updateParam.getItemName())
                 .addValue("price", updateParam.getPrice())
                 .addValue("quantity", updateParam.getQuantity())
-                .addValue("id", itemId);
+                .addValue("id", itemId)
+                .addValue("version", updateParam.getVersion(), Types.BIGINT);
 
-        template.update(sql, param);
+        int updatedRows = template.update(sql, param);
+        ItemVersions.checkUpdated(updatedRows, itemId, updateParam);
     }
 
     @Override
     public Optional<Item> findById(Long id) {
-        String sql = "select id, item_name, price, quantity from item where id = :id";
+        String sql = "select id, item_name, price, quantity, version from item where id = :id";
         try {
             Map<String, Object> param = Map.of("id", id);
             Item item = template.queryForObject(sql, param, itemRowMapper());
@@ -80,43 +137,65 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
         }
     }
 
+    /**
+     * ItemIdChunks 조각마다 in (:ids) 한 번 - 리스트 크기만큼 펼쳐지므로 조각 크기별로 SQL 이 고정된다.
+     */
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        String sql = "select id, item_name, price, quantity, version from item where id in (:ids)";
+        List<Item> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : ItemIdChunks.chunks(ids)) {
+            result.addAll(template.query(sql, Map.of("ids", chunk), itemRowMapper()));
+        }
+        return result;
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
-        String itemName = cond.getItemName();
-        Integer maxPrice = cond.getMaxPrice();
-
-        String sql = "select id, item_name, price, quantity from item";
-        SqlParameterSource param = new BeanPropertySqlParameterSource(cond);
-
-        // 동적 쿼리
-        // 1. itemName 이나 maxPrice 에 값이 있는 경우
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
-            sql += " where";
-
-            boolean andFlag = false;
-
-            // 2. itemName 에 값이 있는 경우
-            if (StringUtils.hasText(itemName)) {
-                sql += " item_name like concat('%', :itemName, '%')";
-                andFlag = true;
-            }
-
-            // 3. maxPrice 에 값이 있는 경우
-            if (maxPrice != null) {
-                // 3-1. itemName, maxPrice 둘 다 값이 있는 경우
-                if (andFlag) {
-                    sql += " and";
-                }
-                sql += " price <= :maxPrice";
-            }
+        ItemSearchShape shape = ItemSearchShape.of(cond);
+        return template.query(searchSql.findAll(shape), searchParams(shape, cond), itemRowMapper());
+    }
+
+    @Override
+    public void streamAll(ItemSearchCond cond, Consumer<Item> action) {
+        ItemSearchShape shape = ItemSearchShape.of(cond);
+
+        RowMapper<Item> rowMapper = itemRowMapper();
+        RowCallbackHandler handler = rs -> action.accept(rowMapper.mapRow(rs, rs.getRow()));
+        streamTemplate.query(searchSql.findAll(shape), searchParams(shape, cond), handler);
+    }
+
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, ItemPageCond page) {
+        ItemSearchShape shape = ItemSearchShape.of(cond);
+
+        // 키셋 조건
+        MapSqlParameterSource param = searchParams(shape, cond)
+                .addValue("fetchSize", page.getFetchSize());
+        if (page.isBackward()) {
+            param.addValue("beforeId", page.getBeforeId());
+        } else if (page.getAfterId() != null) {
+            param.addValue("afterId", page.getAfterId());
         }
 
-        // 4. 최종 sql 문 출력
-        log.info("sql = {}", sql);
-        return template.query(sql, param, itemRowMapper());
+        return template.query(searchSql.findPage(shape, page), param, itemRowMapper());
+    }
+
+    /**
+     * 모양별 SQL 에 있는 파라미터만 담는다. ( BeanPropertySqlParameterSource 의 리플렉션 없이 )
+     */
+    private MapSqlParameterSource searchParams(ItemSearchShape shape, ItemSearchCond cond) {
+        MapSqlParameterSource param = new MapSqlParameterSource();
+        if (shape.hasItemName()) {
+            param.addValue("itemName", cond.getItemName());
+        }
+        if (shape.hasMaxPrice()) {
+            param.addValue("maxPrice", cond.getMaxPrice());
+        }
+        return param;
     }
 
     private RowMapper<Item> itemRowMapper() {
-        return BeanPropertyRowMapper.newInstance(Item.class);
+        return ITEM_ROW_MAPPER;
     }
 }
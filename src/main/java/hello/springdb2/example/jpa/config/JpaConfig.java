@@ -6,6 +6,7 @@ import hello.springdb2.service.ItemService;
 import hello.springdb2.service.ItemServiceV1;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,6 +15,9 @@ import org.springframework.context.annotation.Configuration;
 public class JpaConfig {
     private final EntityManager em;
 
+    @Value("${item.batch-size:1000}")
+    private int batchSize;
+
     @Bean
     public ItemService itemService() {
         return new ItemServiceV1(itemRepository());
@@ -21,6 +25,6 @@ public class JpaConfig {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new JpaItemRepositoryV1(em);
+        return new JpaItemRepositoryV1(em, batchSize);
     }
 }
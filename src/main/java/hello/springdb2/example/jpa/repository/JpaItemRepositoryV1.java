@@ -1,26 +1,50 @@
 package hello.springdb2.example.jpa.repository;
 
 import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.support.ItemBatchInsert;
+import hello.springdb2.repository.support.ItemCacheRegions;
+import hello.springdb2.repository.support.ItemDirectUpdate;
+import hello.springdb2.repository.support.ItemIdChunks;
+import hello.springdb2.repository.support.ItemSearchShape;
+import hello.springdb2.repository.support.ItemSearchSql;
+import hello.springdb2.repository.support.JpaScroll;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 @Repository
 @Transactional
-@RequiredArgsConstructor
 public class JpaItemRepositoryV1 implements ItemRepository {
+    private static final ItemSearchSql JPQL = ItemSearchSql.JPQL;
+
     private final EntityManager em;
+    private final int batchSize;
+
+    public JpaItemRepositoryV1(EntityManager em) {
+        this(em, ItemBatchInsert.DEFAULT_BATCH_SIZE);
+    }
+
+    public JpaItemRepositoryV1(
+            EntityManager em,
+            int batchSize
+    ) {
+        this.em = em;
+        this.batchSize = batchSize;
+    }
 
     @Override
     public Item save(Item item) {
@@ -28,55 +52,111 @@ public class JpaItemRepositoryV1 implements ItemRepository {
         return item;
     }
 
+    /**
+     * IDENTITY 전략은 insert 마다 id 를 받아와야 해서 하이버네이트가 insert 를 배치로 묶지 못한다.
+     * 같은 트랜잭션의 커넥션에서 JDBC 배치로 저장하고 id 를 채운다. ( 반환되는 Item 은 영속 상태가 아니다. )
+     */
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        long start = System.nanoTime();
+        em.flush();
+        em.unwrap(Session.class).doWork(con -> ItemBatchInsert.insert(con, items, batchSize));
+        ItemCacheRegions.afterJdbcWrite(em);
+
+        log.info("saveAll rows={}, rows/sec={}", items.size(), ItemBatchInsert.rowsPerSecond(items.size(), start));
+        return new ArrayList<>(items);
+    }
+
+    /**
+     * 조회 후 변경 감지 대신 JPQL update 한 번으로 수정한다. ( ItemDirectUpdate )
+     */
     @Override
     public void update(
             Long itemId,
             ItemUpdateDto updateParam
     ) {
-        Item findItem = em.find(Item.class, itemId);
-        findItem.update(updateParam);
+        int updatedRows = em.createQuery(
+                        "update Item i set i.itemName = :itemName, i.price = :price, i.quantity = :quantity, i.version = i.version + 1"
+                                + " where i.id = :id and i.version = coalesce(:version, i.version)"
+                )
+                .setParameter("itemName", updateParam.getItemName())
+                .setParameter("price", updateParam.getPrice())
+                .setParameter("quantity", updateParam.getQuantity())
+                .setParameter("id", itemId)
+                .setParameter("version", updateParam.getVersion())
+                .executeUpdate();
+
+        ItemDirectUpdate.afterUpdate(em, itemId, updateParam, updatedRows);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Item> findById(Long id) {
         Item item = em.find(Item.class, id);
         return Optional.ofNullable(item);
     }
 
+    /**
+     * ItemIdChunks 조각마다 in 쿼리 한 번 - 조각 크기별로 SQL 이 고정된다.
+     */
     @Override
-    public List<Item> findAll(ItemSearchCond cond) {
-        String jpql = "select i from Item i";
-
-        String itemName = cond.getItemName();
-        Integer maxPrice = cond.getMaxPrice();
-
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
-            jpql += " where";
-
-            boolean andFlag = false;
-            if (StringUtils.hasText(itemName)) {
-                jpql += " i.itemName like concat('%', :itemName, '%')";
-                andFlag = true;
-            }
-
-            if (maxPrice != null) {
-                if (andFlag) {
-                    jpql += " and";
-                }
-                jpql += " i.price <= :maxPrice";
-            }
+    @Transactional(readOnly = true)
+    public List<Item> findAllById(Collection<Long> ids) {
+        List<Item> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : ItemIdChunks.chunks(ids)) {
+            result.addAll(em.createQuery("select i from Item i where i.id in :ids", Item.class)
+                    .setParameter("ids", chunk)
+                    .getResultList());
         }
+        return result;
+    }
 
-        log.info("jpql = {}", jpql);
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findAll(ItemSearchCond cond) {
+        return findAllQuery(cond).getResultList();
+    }
 
-        TypedQuery<Item> query = em.createQuery(jpql, Item.class);
-        if (StringUtils.hasText(itemName)) {
-            query.setParameter("itemName", itemName);
-        }
-        if (maxPrice != null) {
-            query.setParameter("maxPrice", maxPrice);
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(ItemSearchCond cond, Consumer<Item> action) {
+        JpaScroll.forEach(em, findAllQuery(cond), action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findPage(ItemSearchCond cond, ItemPageCond page) {
+        ItemSearchShape shape = ItemSearchShape.of(cond);
+
+        TypedQuery<Item> query = em.createQuery(JPQL.findPage(shape, page), Item.class)
+                .setMaxResults(page.getFetchSize());
+        bindSearchParams(query, shape, cond);
+        if (page.isBackward()) {
+            query.setParameter("beforeId", page.getBeforeId());
+        } else if (page.getAfterId() != null) {
+            query.setParameter("afterId", page.getAfterId());
         }
 
         return query.getResultList();
     }
+
+    /**
+     * 모양별 JPQL 문자열이 항상 같으므로 하이버네이트 쿼리 계획 캐시를 그대로 탄다.
+     */
+    private TypedQuery<Item> findAllQuery(ItemSearchCond cond) {
+        ItemSearchShape shape = ItemSearchShape.of(cond);
+
+        TypedQuery<Item> query = em.createQuery(JPQL.findAll(shape), Item.class);
+        bindSearchParams(query, shape, cond);
+        return query;
+    }
+
+    private void bindSearchParams(TypedQuery<Item> query, ItemSearchShape shape, ItemSearchCond cond) {
+        if (shape.hasItemName()) {
+            query.setParameter("itemName", cond.getItemName());
+        }
+        if (shape.hasMaxPrice()) {
+            query.setParameter("maxPrice", cond.getMaxPrice());
+        }
+    }
 }
@@ -1,21 +1,51 @@
 package hello.springdb2.example.memory.config;
 
+import hello.springdb2.example.memory.repository.DurableItemRepository;
 import hello.springdb2.example.memory.repository.MemoryItemRepository;
 import hello.springdb2.repository.ItemRepository;
 import hello.springdb2.service.ItemService;
 import hello.springdb2.service.ItemServiceV1;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * item.memory.data-dir 를 지정하면 저장소를 디스크에 남긴다. ( DurableItemRepository )
+ * - item.memory.fsync-interval-ms: 쓰기 로그 fsync 주기 ( 기본 10ms )
+ * - item.memory.snapshot-interval-seconds: 스냅샷 주기 ( 기본 300초 )
+ */
 @Configuration
 public class MemoryConfig {
+
+    @Value("${item.memory.data-dir:}")
+    private String dataDir;
+
+    @Value("${item.memory.fsync-interval-ms:10}")
+    private long fsyncIntervalMs;
+
+    @Value("${item.memory.snapshot-interval-seconds:300}")
+    private long snapshotIntervalSeconds;
+
     @Bean
-    public ItemService itemService() {
+    public ItemService itemService() throws IOException {
         return new ItemServiceV1(itemRepository());
     }
 
     @Bean
-    public ItemRepository itemRepository() {
-        return new MemoryItemRepository();
+    public ItemRepository itemRepository() throws IOException {
+        if (!StringUtils.hasText(dataDir)) {
+            return new MemoryItemRepository();
+        }
+        return DurableItemRepository.open(
+                new MemoryItemRepository(),
+                Path.of(dataDir),
+                Duration.ofMillis(fsyncIntervalMs),
+                Duration.ofSeconds(snapshotIntervalSeconds)
+        );
     }
 }
@@ -0,0 +1,253 @@
+package hello.springdb2.example.memory.repository;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.DelegatingItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 디스크에 남는 MemoryItemRepository
+ * - save / update 는 메모리에 반영한 뒤 쓰기 로그( ItemWriteLog )에 추가한다. 읽기는 메모리만 본다.
+ * - fsyncInterval 마다 쓰기 로그를 모아서 디스크에 반영한다. 장애 시 마지막 fsyncInterval 동안의 쓰기는 잃을 수 있다.
+ * - snapshotInterval 마다 로그 세그먼트를 넘기고, 전체 Item 을 스냅샷( ItemSnapshots )으로 남긴 뒤 이전 로그를 지운다.
+ * - 기동 시 최신 스냅샷을 읽고 그 뒤 로그를 재생해서 메모리 저장소를 되살린다.
+ * <p>
+ * 스냅샷은 쓰기를 막지 않고 읽는다. 넘긴 세그먼트에는 읽는 동안의 쓰기가 전체 값으로 남아 있으므로
+ * 복구할 때 다시 덮어써서 같은 결과가 된다.
+ */
+@Slf4j
+public class DurableItemRepository implements DelegatingItemRepository, Closeable {
+    private static final ItemSearchCond ALL = new ItemSearchCond(null, null);
+
+    private final MemoryItemRepository delegate;
+    private final Path dir;
+    private final ItemWriteLog writeLog;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 메모리 반영과 로그 추가 순서를 같게 맞춘다. ( 같은 id 에 대한 update 순서 )
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private DurableItemRepository(
+            MemoryItemRepository delegate,
+            Path dir,
+            ItemWriteLog writeLog
+    ) {
+        this.delegate = delegate;
+        this.dir = dir;
+        this.writeLog = writeLog;
+        // 스냅샷을 쓰는 동안에도 fsync 주기가 밀리지 않도록 스레드를 나눈다.
+        this.scheduler = Executors.newScheduledThreadPool(2, r -> {
+            Thread thread = new Thread(r, "item-write-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * dir 의 스냅샷과 로그로 delegate 를 복구하고, 주기 작업( fsync, 스냅샷 )을 시작한다.
+     */
+    public static DurableItemRepository open(
+            MemoryItemRepository delegate,
+            Path dir,
+            Duration fsyncInterval,
+            Duration snapshotInterval
+    ) throws IOException {
+        Files.createDirectories(dir);
+        long start = System.nanoTime();
+        delegate.clearStore();
+
+        AtomicLong records = new AtomicLong();
+        long snapshot = ItemSnapshots.latest(dir);
+        if (snapshot > 0) {
+            ItemSnapshots.read(dir, snapshot, item -> {
+                delegate.restore(item);
+                records.incrementAndGet();
+            });
+        }
+        long lastSegment = ItemWriteLog.replay(dir, snapshot, item -> {
+            delegate.restore(item);
+            records.incrementAndGet();
+        });
+        log.info("recovered memory store. dir={}, snapshot={}, lastSegment={}, records={}, ms={}",
+                dir, snapshot, lastSegment, records.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        // 복구한 세그먼트에는 더 쓰지 않고 다음 번호부터 새로 쓴다.
+        ItemWriteLog writeLog = new ItemWriteLog(dir, Math.max(lastSegment, snapshot) + 1);
+        DurableItemRepository repository = new DurableItemRepository(delegate, dir, writeLog);
+        repository.schedule(fsyncInterval, snapshotInterval);
+        return repository;
+    }
+
+    @Override
+    public ItemRepository getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Item save(
+            Item item
+    ) {
+        writeLock.lock();
+        try {
+            delegate.save(item);
+            writeLog.append(item);
+            return item;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Item> saveAll(
+            Collection<Item> items
+    ) {
+        writeLock.lock();
+        try {
+            List<Item> savedItems = delegate.saveAll(items);
+            for (Item item : savedItems) {
+                writeLog.append(item);
+            }
+            return savedItems;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        writeLock.lock();
+        try {
+            delegate.update(itemId, updateParam);
+            Optional<Item> updatedItem = delegate.findById(itemId);
+            if (updatedItem.isPresent()) {
+                writeLog.append(updatedItem.get());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        return delegate.findAll(cond);
+    }
+
+    @Override
+    public List<Item> findPage(ItemSearchCond cond, ItemPageCond page) {
+        return delegate.findPage(cond, page);
+    }
+
+    @Override
+    public void streamAll(ItemSearchCond cond, Consumer<Item> action) {
+        delegate.streamAll(cond, action);
+    }
+
+    /**
+     * 밀린 쓰기를 디스크에 반영한다.
+     */
+    public void sync() throws IOException {
+        writeLog.sync();
+    }
+
+    /**
+     * 로그 세그먼트를 넘기고 전체 스냅샷을 남긴 뒤, 스냅샷에 포함된 로그와 이전 스냅샷을 지운다.
+     */
+    public void snapshot() throws IOException {
+        long segment;
+        writeLock.lock();
+        try {
+            segment = writeLog.roll();
+        } finally {
+            writeLock.unlock();
+        }
+
+        int items = ItemSnapshots.write(dir, segment, action -> delegate.streamAll(ALL, action));
+        ItemSnapshots.deleteBefore(dir, segment);
+        ItemWriteLog.deleteBefore(dir, segment);
+        log.info("memory store snapshot. segment={}, items={}", segment, items);
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeLog.close();
+    }
+
+    private void schedule(
+            Duration fsyncInterval,
+            Duration snapshotInterval
+    ) {
+        scheduler.scheduleWithFixedDelay(
+                () -> run("sync", this::sync),
+                fsyncInterval.toMillis(), fsyncInterval.toMillis(), TimeUnit.MILLISECONDS
+        );
+        scheduler.scheduleWithFixedDelay(
+                () -> run("snapshot", this::snapshot),
+                snapshotInterval.toMillis(), snapshotInterval.toMillis(), TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * 예외가 나도 다음 주기 작업은 계속 실행되어야 하므로 로그만 남긴다.
+     */
+    private static void run(
+            String name,
+            IoTask task
+    ) {
+        try {
+            task.run();
+        } catch (IOException | RuntimeException e) {
+            log.error("memory store {} failed", name, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoTask {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,138 @@
+package hello.springdb2.example.memory.repository;
+
+import hello.springdb2.domain.Item;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * 쓰기 로그와 스냅샷이 같이 쓰는 Item 한 건의 바이너리 형식
+ * - id(8) | 이름 길이(2, null 이면 -1) | 이름 UTF-8 | 플래그(1) | price(4) | quantity(4) | version(8)
+ * - version 은 VERSIONED 플래그가 있을 때만 있다. ( 플래그가 없는 예전 레코드는 version 0 으로 읽는다. )
+ * - 길이를 앞에 두지 않아도 스스로 끝을 알 수 있다.
+ * <p>
+ * 파일 이름은 prefix + 20자리 번호 + suffix 라서 이름 순서가 번호 순서와 같다.
+ */
+abstract class ItemRecords {
+    private static final byte PRICE_NULL = 1;
+    private static final byte QUANTITY_NULL = 2;
+    private static final byte VERSIONED = 4;
+
+    static byte[] encodeName(Item item) {
+        return item.getItemName() == null ? null : item.getItemName().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static int size(byte[] name) {
+        return size(name == null ? 0 : name.length);
+    }
+
+    /**
+     * 이름을 인코딩하지 않고 구한 크기 ( 스냅샷 크기 계산용, 짝이 맞지 않는 대리 문자는 실제보다 크게 센다. )
+     */
+    static int size(Item item) {
+        String itemName = item.getItemName();
+        if (itemName == null) {
+            return size(0);
+        }
+        int length = 0;
+        for (int i = 0; i < itemName.length(); i++) {
+            char c = itemName.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return size(length);
+    }
+
+    private static int size(int nameLength) {
+        return 8 + 2 + nameLength + 1 + 4 + 4 + 8;
+    }
+
+    static void write(
+            ByteBuffer buffer,
+            Item item,
+            byte[] name
+    ) {
+        buffer.putLong(item.getId());
+        if (name == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+
+        byte nulls = VERSIONED;
+        if (item.getPrice() == null) {
+            nulls |= PRICE_NULL;
+        }
+        if (item.getQuantity() == null) {
+            nulls |= QUANTITY_NULL;
+        }
+        buffer.put(nulls);
+        buffer.putInt(item.getPrice() == null ? 0 : item.getPrice());
+        buffer.putInt(item.getQuantity() == null ? 0 : item.getQuantity());
+        buffer.putLong(item.getVersion() == null ? 0 : item.getVersion());
+    }
+
+    static Item read(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        short nameLength = buffer.getShort();
+        String itemName = null;
+        if (nameLength >= 0) {
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+            itemName = new String(name, StandardCharsets.UTF_8);
+        }
+
+        byte nulls = buffer.get();
+        int price = buffer.getInt();
+        int quantity = buffer.getInt();
+        long version = (nulls & VERSIONED) != 0 ? buffer.getLong() : 0;
+
+        Item item = new Item(
+                itemName,
+                (nulls & PRICE_NULL) != 0 ? null : price,
+                (nulls & QUANTITY_NULL) != 0 ? null : quantity
+        );
+        item.setId(id);
+        item.setVersion(version);
+        return item;
+    }
+
+    static Path file(
+            Path dir,
+            String prefix,
+            long number,
+            String suffix
+    ) {
+        return dir.resolve(String.format("%s%020d%s", prefix, number, suffix));
+    }
+
+    /**
+     * dir 안에서 prefix, suffix 에 맞는 파일 번호 ( 오름차순 )
+     */
+    static long[] numbers(
+            Path dir,
+            String prefix,
+            String suffix
+    ) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .mapToLong(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .sorted()
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package hello.springdb2.example.memory.repository;
+
+import hello.springdb2.domain.Item;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 압축 스냅샷 ( snapshot-번호.snap )
+ * - 형식: MAGIC(8) | 건수(4) | 본문 CRC32C(4) | 본문 ( ItemRecords 를 이어 붙임 )
+ * - 번호 N 스냅샷은 세그먼트 N 이전의 로그를 모두 담는다. 복구는 스냅샷 N 을 읽고 세그먼트 N 부터 재생한다.
+ * - 쓰기와 읽기 모두 메모리 맵 파일로 한 번에 처리하고, 임시 파일에 다 쓴 뒤 이름을 바꿔서 반쯤 쓴 스냅샷이 보이지 않게 한다.
+ * - 쓸 때는 Item 을 모아 두지 않고 두 번 순회한다. ( 1차: 크기 계산, 2차: 맵 파일에 바로 인코딩 )
+ * <p>
+ * 두 순회 사이에 저장소가 바뀔 수 있다. ( 스냅샷은 쓰기를 막지 않는다. )
+ * - 커지면 맵 영역을 넘는 레코드부터 FileChannel 로 이어 쓴다.
+ * - 작아지면 남은 영역은 0 으로 남고 체크섬에 포함된다. ( 읽을 때는 건수만큼만 읽는다. )
+ */
+abstract class ItemSnapshots {
+    static final String PREFIX = "snapshot-";
+    static final String SUFFIX = ".snap";
+    private static final long MAGIC = 0x4954454D534E4150L;
+    private static final int HEADER_SIZE = 8 + 4 + 4;
+    private static final int OVERFLOW_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * @param items 전체 Item 을 순회하는 함수 ( 두 번 호출한다. )
+     * @return 스냅샷에 쓴 건수
+     */
+    static int write(
+            Path dir,
+            long segment,
+            Consumer<Consumer<Item>> items
+    ) throws IOException {
+        long[] size = {HEADER_SIZE};
+        items.accept(item -> size[0] += ItemRecords.size(item));
+        if (size[0] > Integer.MAX_VALUE) {
+            throw new IllegalStateException("snapshot too large. size=" + size[0]);
+        }
+
+        Path file = ItemRecords.file(dir, PREFIX, segment, SUFFIX);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        int count;
+        try (FileChannel channel = FileChannel.open(
+                tempFile,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        )) {
+            Body body = new Body(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size[0]));
+            items.accept(body::append);
+            count = body.finish();
+        }
+        Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // 이름 변경이 디스크에 남기 전에 이전 스냅샷과 로그를 지우면 안 된다.
+        forceDirectory(dir);
+        return count;
+    }
+
+    /**
+     * @return 가장 최근 스냅샷 번호, 없으면 0
+     */
+    static long latest(Path dir) throws IOException {
+        long[] numbers = ItemRecords.numbers(dir, PREFIX, SUFFIX);
+        return numbers.length == 0 ? 0 : numbers[numbers.length - 1];
+    }
+
+    /**
+     * 체크섬이 맞지 않으면 IllegalStateException
+     */
+    static void read(
+            Path dir,
+            long segment,
+            Consumer<Item> action
+    ) throws IOException {
+        Path file = ItemRecords.file(dir, PREFIX, segment, SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getLong() != MAGIC) {
+                throw new IllegalStateException("not a snapshot. file=" + file);
+            }
+            int count = buffer.getInt();
+            int checksum = buffer.getInt();
+
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                throw new IllegalStateException("corrupted snapshot. file=" + file);
+            }
+
+            for (int i = 0; i < count; i++) {
+                action.accept(ItemRecords.read(buffer));
+            }
+        }
+    }
+
+    /**
+     * 새 스냅샷을 다 쓴 뒤에 이전 스냅샷을 지운다.
+     */
+    static void deleteBefore(
+            Path dir,
+            long segment
+    ) throws IOException {
+        for (long number : ItemRecords.numbers(dir, PREFIX, SUFFIX)) {
+            if (number < segment) {
+                Files.deleteIfExists(ItemRecords.file(dir, PREFIX, number, SUFFIX));
+            }
+        }
+    }
+
+    private static void forceDirectory(Path dir) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * 스냅샷 본문 - 맵 영역에 바로 쓰고, 넘치는 부분은 그 뒤에 FileChannel 로 이어 쓴다.
+     */
+    private static final class Body {
+        private final FileChannel channel;
+        private final MappedByteBuffer mapped;
+        private final CRC32C crc = new CRC32C();
+        private ByteBuffer overflow;
+        private long overflowPosition;
+        private int count;
+
+        Body(
+                FileChannel channel,
+                MappedByteBuffer mapped
+        ) {
+            this.channel = channel;
+            this.mapped = mapped;
+            mapped.position(HEADER_SIZE);
+        }
+
+        void append(Item item) {
+            byte[] name = ItemRecords.encodeName(item);
+            int size = ItemRecords.size(name);
+            if (overflow == null && mapped.remaining() >= size) {
+                ItemRecords.write(mapped, item, name);
+            } else {
+                appendOverflow(item, name, size);
+            }
+            count++;
+        }
+
+        int finish() throws IOException {
+            if (overflow == null) {
+                crc.update(mapped.slice(HEADER_SIZE, mapped.capacity() - HEADER_SIZE));
+            } else {
+                flushOverflow();
+            }
+            if (overflowPosition > Integer.MAX_VALUE) {
+                throw new IllegalStateException("snapshot too large. size=" + overflowPosition);
+            }
+            mapped.putLong(0, MAGIC);
+            mapped.putInt(8, count);
+            mapped.putInt(12, (int) crc.getValue());
+            mapped.force();
+            channel.force(false);
+            return count;
+        }
+
+        /**
+         * 레코드를 맵 영역 끝까지 채우고 나머지를 이어 쓴다. ( 레코드 사이에 빈 칸이 생기지 않게 )
+         */
+        private void appendOverflow(
+                Item item,
+                byte[] name,
+                int size
+        ) {
+            if (overflow == null) {
+                overflow = ByteBuffer.allocate(Math.max(OVERFLOW_BUFFER_SIZE, size));
+                overflowPosition = mapped.capacity();
+                ItemRecords.write(overflow, item, name);
+
+                ByteBuffer head = overflow.flip().slice(0, mapped.remaining());
+                mapped.put(head);
+                crc.update(mapped.slice(HEADER_SIZE, mapped.capacity() - HEADER_SIZE));
+                overflow.position(head.capacity()).compact();
+                return;
+            }
+            if (overflow.remaining() < size) {
+                flushOverflow();
+                if (overflow.capacity() < size) {
+                    overflow = ByteBuffer.allocate(size);
+                }
+            }
+            ItemRecords.write(overflow, item, name);
+        }
+
+        private void flushOverflow() {
+            overflow.flip();
+            crc.update(overflow.duplicate());
+            try {
+                while (overflow.hasRemaining()) {
+                    overflowPosition += channel.write(overflow, overflowPosition);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            overflow.clear();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package hello.springdb2.example.memory.repository;
+
+import hello.springdb2.domain.Item;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 추가만 하는 쓰기 로그 ( items-번호.log 세그먼트 )
+ * - 레코드: payload 길이(4) | CRC32C(4) | payload ( ItemRecords )
+ * - 레코드는 항상 쓰기 후의 Item 전체 값이므로, 같은 레코드를 여러 번 재생해도 결과가 같다.
+ * - append 는 OS 페이지 캐시까지만 쓰고 바로 돌아온다. 디스크 반영( fsync )은 sync 가 모아서 한 번에 한다.
+ * - roll 은 현재 세그먼트를 닫고 다음 번호로 넘어간다. ( 스냅샷 경계 )
+ */
+@Slf4j
+class ItemWriteLog implements Closeable {
+    static final String PREFIX = "items-";
+    static final String SUFFIX = ".log";
+    private static final int HEADER_SIZE = 8;
+
+    private final Path dir;
+    private final CRC32C crc = new CRC32C();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    /**
+     * roll, close 와 sync 가 같은 채널을 보도록 맞춘다. ( append 는 이 락을 잡지 않는다. )
+     */
+    private final Object syncLock = new Object();
+
+    private ByteBuffer buffer = ByteBuffer.allocate(256);
+    private volatile FileChannel channel;
+    private long segment;
+
+    ItemWriteLog(
+            Path dir,
+            long segment
+    ) throws IOException {
+        this.dir = dir;
+        this.segment = segment;
+        this.channel = open(dir, segment);
+    }
+
+    synchronized void append(Item item) throws IOException {
+        byte[] name = ItemRecords.encodeName(item);
+        int payloadSize = ItemRecords.size(name);
+        if (buffer.capacity() < HEADER_SIZE + payloadSize) {
+            buffer = ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+        }
+
+        buffer.clear();
+        buffer.position(HEADER_SIZE);
+        ItemRecords.write(buffer, item, name);
+        crc.reset();
+        crc.update(buffer.array(), HEADER_SIZE, payloadSize);
+        buffer.putInt(0, payloadSize);
+        buffer.putInt(4, (int) crc.getValue());
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        dirty.set(true);
+    }
+
+    /**
+     * 마지막 sync 이후 쓴 레코드를 디스크에 반영한다. ( 쓴 것이 없으면 아무 일도 하지 않는다. )
+     */
+    void sync() throws IOException {
+        synchronized (syncLock) {
+            if (dirty.getAndSet(false)) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * 현재 세그먼트를 디스크에 반영하고 닫은 뒤 새 세그먼트를 연다.
+     *
+     * @return 새 세그먼트 번호
+     */
+    long roll() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                channel.force(false);
+                channel.close();
+                segment++;
+                channel = open(dir, segment);
+                dirty.set(false);
+                return segment;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * fromSegment 부터의 세그먼트를 순서대로 재생한다.
+     * - 마지막 세그먼트 끝의 잘린( 쓰다가 멈춘 ) 레코드는 버리고 파일을 그 앞까지 자른다.
+     * - 마지막이 아닌 세그먼트가 깨져 있으면 IllegalStateException
+     *
+     * @return 재생한 마지막 세그먼트 번호, 없으면 fromSegment - 1
+     */
+    static long replay(
+            Path dir,
+            long fromSegment,
+            Consumer<Item> action
+    ) throws IOException {
+        long[] segments = ItemRecords.numbers(dir, PREFIX, SUFFIX);
+        long lastSegment = fromSegment - 1;
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i] < fromSegment) {
+                continue;
+            }
+
+            Path file = ItemRecords.file(dir, PREFIX, segments[i], SUFFIX);
+            long validSize = replaySegment(file, action);
+            if (validSize < Files.size(file)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalStateException("corrupted write log. file=" + file + ", offset=" + validSize);
+                }
+                log.warn("truncate torn write log tail. file={}, size={}, validSize={}", file, Files.size(file), validSize);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(validSize);
+                    channel.force(true);
+                }
+            }
+            lastSegment = segments[i];
+        }
+        return lastSegment;
+    }
+
+    /**
+     * 스냅샷에 포함된 세그먼트를 지운다.
+     */
+    static void deleteBefore(
+            Path dir,
+            long segment
+    ) throws IOException {
+        for (long number : ItemRecords.numbers(dir, PREFIX, SUFFIX)) {
+            if (number < segment) {
+                Files.deleteIfExists(ItemRecords.file(dir, PREFIX, number, SUFFIX));
+            }
+        }
+    }
+
+    /**
+     * @return 체크섬이 맞는 마지막 레코드까지의 길이
+     */
+    private static long replaySegment(
+            Path file,
+            Consumer<Item> action
+    ) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32C crc = new CRC32C();
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int start = buffer.position();
+                int payloadSize = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (payloadSize <= 0 || buffer.remaining() < payloadSize) {
+                    return start;
+                }
+
+                ByteBuffer payload = buffer.slice(buffer.position(), payloadSize);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    return start;
+                }
+
+                action.accept(ItemRecords.read(payload));
+                buffer.position(buffer.position() + payloadSize);
+            }
+            return buffer.position();
+        }
+    }
+
+    private static FileChannel open(
+            Path dir,
+            long segment
+    ) throws IOException {
+        return FileChannel.open(
+                ItemRecords.file(dir, PREFIX, segment, SUFFIX),
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE
+        );
+    }
+}
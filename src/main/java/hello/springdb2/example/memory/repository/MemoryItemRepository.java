@@ -1,39 +1,99 @@
 package hello.springdb2.example.memory.repository;
 
 import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.search.ItemNameIndex;
+import hello.springdb2.repository.support.ItemVersions;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.ObjectUtils;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * 동시성 안전한 메모리 저장소 - 읽기는 락이 없고, 쓰기는 WRITE_LOCK 하나로 직렬화한다.
+ * - ConcurrentSkipListMap: 락 없이 읽고, id 순서로 순회한다. ( SQL 구현체와 같은 결과 순서 )
+ * - AtomicLong: id 는 락을 잡기 전에 발급한다. 동시 save 에서도 중복되거나 유실되지 않는다.
+ * - update 는 저장된 Item 을 직접 수정하지 않고 버전을 올린 새 Item 으로 교체한다. ( 읽는 쪽이 반쯤 바뀐 Item 을 보지 않는다. )
+ * - save / saveAll / update 는 저장소와 인덱스( 가격, 이름 )를 함께 바꾸기 위해 모두 WRITE_LOCK 을 잡는다.
+ *   쓰기끼리는 이 락에서 기다리므로 쓰기가 몰리면 처리량은 락 하나에 묶인다.
+ */
 @Repository
 public class MemoryItemRepository implements ItemRepository {
-    private static final Map<Long, Item> STORE = new HashMap<>();
-    private static long sequence = 0L;
+    private static final ConcurrentNavigableMap<Long, Item> STORE = new ConcurrentSkipListMap<>();
+    private static final PriceIndex PRICE_INDEX = new PriceIndex();
+    private static final ItemNameIndex NAME_INDEX = new ItemNameIndex();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final ReentrantLock WRITE_LOCK = new ReentrantLock();
 
     @Override
     public Item save(
             Item item
     ) {
-        item.setId(++sequence);
-        STORE.put(item.getId(), item);
+        item.setId(SEQUENCE.incrementAndGet());
+        item.setVersion(ItemVersions.INITIAL);
+
+        WRITE_LOCK.lock();
+        try {
+            STORE.put(item.getId(), item);
+            NAME_INDEX.put(item.getId(), item.getItemName());
+            if (item.getPrice() != null) {
+                PRICE_INDEX.add(item.getPrice(), item.getId());
+            }
+        } finally {
+            WRITE_LOCK.unlock();
+        }
         return item;
     }
 
+    @Override
+    public List<Item> saveAll(
+            Collection<Item> items
+    ) {
+        WRITE_LOCK.lock();
+        try {
+            items.forEach(this::save);
+        } finally {
+            WRITE_LOCK.unlock();
+        }
+        return new ArrayList<>(items);
+    }
+
     @Override
     public void update(
             Long itemId,
             ItemUpdateDto updateParam
     ) {
-        Item findItem = STORE.get(itemId);
-        findItem.update(updateParam);
+        WRITE_LOCK.lock();
+        try {
+            Item findItem = STORE.get(itemId);
+            if (findItem == null) {
+                ItemVersions.checkUpdated(0, itemId, updateParam);
+                return;
+            }
+            ItemVersions.check(findItem, updateParam);
+
+            Item updatedItem = updatedItem(itemId, updateParam, ItemVersions.next(findItem));
+            STORE.put(itemId, updatedItem);
+            NAME_INDEX.put(itemId, updatedItem.getItemName());
+            reindexPrice(itemId, findItem.getPrice(), updatedItem.getPrice());
+        } finally {
+            WRITE_LOCK.unlock();
+        }
     }
 
     @Override
@@ -43,6 +103,23 @@ public class MemoryItemRepository implements ItemRepository {
         return Optional.ofNullable(STORE.get(id));
     }
 
+    /**
+     * 저장소 맵에서 바로 꺼낸다. ( 락 없음, 중복 id 는 한 번만 )
+     */
+    @Override
+    public List<Item> findAllById(
+            Collection<Long> ids
+    ) {
+        List<Item> result = new ArrayList<>(ids.size());
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Item item = id == null ? null : STORE.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
     @Override
     public List<Item> findAll(
             ItemSearchCond cond
@@ -50,13 +127,196 @@ public class MemoryItemRepository implements ItemRepository {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
 
-        return STORE.values().stream()
-                .filter(item -> ObjectUtils.isEmpty(itemName) || item.getItemName().contains(itemName))
-                .filter(item -> ObjectUtils.isEmpty(maxPrice) || item.getPrice() <= maxPrice)
-                .collect(Collectors.toList());
+        long[] candidateIds = candidateIds(itemName, maxPrice);
+        if (candidateIds == null) {
+            return STORE.values().stream()
+                    .filter(item -> matches(item, itemName, maxPrice))
+                    .collect(Collectors.toList());
+        }
+
+        List<Item> result = new ArrayList<>();
+        for (long id : candidateIds) {
+            addIfMatches(result, id, itemName, maxPrice);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Item> findPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        String itemName = cond.getItemName();
+        Integer maxPrice = cond.getMaxPrice();
+
+        // 인덱스를 쓸 수 없거나 넓으면 id 순서 그대로 키 위치부터 읽고, fetchSize 개를 채우면 멈춘다.
+        long[] candidateIds = candidateIds(itemName, maxPrice);
+        if (candidateIds == null) {
+            Map<Long, Item> range = page.isBackward()
+                    ? STORE.headMap(page.getBeforeId(), false).descendingMap()
+                    : page.getAfterId() != null ? STORE.tailMap(page.getAfterId(), false) : STORE;
+            return range.values().stream()
+                    .filter(item -> matches(item, itemName, maxPrice))
+                    .limit(page.getFetchSize())
+                    .collect(Collectors.toList());
+        }
+
+        List<Item> result = new ArrayList<>();
+        if (page.isBackward()) {
+            int pos = Arrays.binarySearch(candidateIds, page.getBeforeId());
+            for (int i = (pos >= 0 ? pos : -(pos + 1)) - 1; i >= 0 && result.size() < page.getFetchSize(); i--) {
+                addIfMatches(result, candidateIds[i], itemName, maxPrice);
+            }
+        } else {
+            int start = 0;
+            if (page.getAfterId() != null) {
+                int pos = Arrays.binarySearch(candidateIds, page.getAfterId());
+                start = pos >= 0 ? pos + 1 : -(pos + 1);
+            }
+            for (int i = start; i < candidateIds.length && result.size() < page.getFetchSize(); i++) {
+                addIfMatches(result, candidateIds[i], itemName, maxPrice);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 저장소를 복사하지 않고 약한 일관성 반복자로 읽는 대로 넘긴다.
+     */
+    @Override
+    public void streamAll(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        String itemName = cond.getItemName();
+        Integer maxPrice = cond.getMaxPrice();
+
+        long[] candidateIds = candidateIds(itemName, maxPrice);
+        if (candidateIds == null) {
+            STORE.values().stream()
+                    .filter(item -> matches(item, itemName, maxPrice))
+                    .forEach(action);
+            return;
+        }
+
+        for (long id : candidateIds) {
+            Item item = STORE.get(id);
+            if (item != null && matches(item, itemName, maxPrice)) {
+                action.accept(item);
+            }
+        }
+    }
+
+    /**
+     * 복구용 ( DurableItemRepository ) - 주어진 id 그대로 넣거나 교체하고, 시퀀스를 가장 큰 id 뒤로 맞춘다.
+     */
+    void restore(
+            Item item
+    ) {
+        WRITE_LOCK.lock();
+        try {
+            Item oldItem = STORE.put(item.getId(), item);
+            NAME_INDEX.put(item.getId(), item.getItemName());
+            reindexPrice(item.getId(), oldItem == null ? null : oldItem.getPrice(), item.getPrice());
+            SEQUENCE.accumulateAndGet(item.getId(), Math::max);
+        } finally {
+            WRITE_LOCK.unlock();
+        }
     }
 
     public void clearStore() {
-        STORE.clear();
+        WRITE_LOCK.lock();
+        try {
+            STORE.clear();
+            PRICE_INDEX.clear();
+            NAME_INDEX.clear();
+        } finally {
+            WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * 인덱스로 좁힌 후보 id ( 오름차순 ), 인덱스를 쓸 수 없으면 null
+     * - itemName 이 3글자 이상이면 이름 인덱스
+     * - maxPrice 가 있으면 가격 인덱스 구간, 단 구간이 좁을 때만 ( 좁은 구간만 id 순으로 정렬한다 )
+     */
+    private static long[] candidateIds(
+            String itemName,
+            Integer maxPrice
+    ) {
+        if (NAME_INDEX.supports(itemName)) {
+            return NAME_INDEX.search(itemName);
+        }
+        if (maxPrice != null) {
+            long[] ids = PRICE_INDEX.selectiveIdsUpTo(maxPrice);
+            if (ids != null) {
+                Arrays.sort(ids);
+            }
+            return ids;
+        }
+        return null;
+    }
+
+    /**
+     * 인덱스를 읽은 뒤 update 가 끼어들 수 있으므로 현재 값으로 한 번 더 확인한다.
+     */
+    private static void addIfMatches(
+            List<Item> result,
+            long id,
+            String itemName,
+            Integer maxPrice
+    ) {
+        Item item = STORE.get(id);
+        if (item != null && matches(item, itemName, maxPrice)) {
+            result.add(item);
+        }
+    }
+
+    private static boolean matches(
+            Item item,
+            String itemName,
+            Integer maxPrice
+    ) {
+        return matchesItemName(item, itemName) && matchesMaxPrice(item, maxPrice);
+    }
+
+    private static boolean matchesItemName(
+            Item item,
+            String itemName
+    ) {
+        return ObjectUtils.isEmpty(itemName)
+                || (item.getItemName() != null && item.getItemName().contains(itemName));
+    }
+
+    private static boolean matchesMaxPrice(
+            Item item,
+            Integer maxPrice
+    ) {
+        return maxPrice == null || (item.getPrice() != null && item.getPrice() <= maxPrice);
+    }
+
+    private static void reindexPrice(
+            long id,
+            Integer oldPrice,
+            Integer newPrice
+    ) {
+        if (oldPrice != null && newPrice != null) {
+            PRICE_INDEX.replace(oldPrice, newPrice, id);
+        } else if (oldPrice != null) {
+            PRICE_INDEX.remove(oldPrice, id);
+        } else if (newPrice != null) {
+            PRICE_INDEX.add(newPrice, id);
+        }
+    }
+
+    private static Item updatedItem(
+            Long id,
+            ItemUpdateDto updateParam,
+            long version
+    ) {
+        Item item = new Item(updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+        item.setId(id);
+        item.setVersion(version);
+        return item;
     }
 }
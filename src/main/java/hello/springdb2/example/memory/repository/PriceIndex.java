@@ -0,0 +1,230 @@
+package hello.springdb2.example.memory.repository;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 가격 보조 인덱스
+ * - (price, id) 순으로 정렬된 int[] / long[] 블록 목록으로 관리한다. ( 박싱 없음 )
+ * - 블록이 가득 차면 반으로 나누므로 추가/삭제 비용은 블록 크기에 비례한다.
+ * - maxPrice 조회는 앞에서부터 price <= maxPrice 인 구간만 순회한다.
+ * - selectiveIdsUpTo 는 구간이 충분히 좁을 때만 목록을 만든다. ( 넓으면 저장소를 순차로 읽는 편이 싸다 )
+ */
+class PriceIndex {
+    private static final int BLOCK_CAPACITY = 512;
+    private static final int SELECTIVE_RATIO = 8;
+
+    private final StampedLock lock = new StampedLock();
+    private Block[] blocks = {new Block()};
+    private int blockCount = 1;
+
+    void add(int price, long id) {
+        long stamp = lock.writeLock();
+        try {
+            insert(price, id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void remove(int price, long id) {
+        long stamp = lock.writeLock();
+        try {
+            delete(price, id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void replace(int oldPrice, int newPrice, long id) {
+        long stamp = lock.writeLock();
+        try {
+            delete(oldPrice, id);
+            insert(newPrice, id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * price <= maxPrice 인 id 목록 ( 가격 순 )
+     */
+    long[] idsUpTo(int maxPrice) {
+        long stamp = lock.readLock();
+        try {
+            return copyIds(countUpTo(maxPrice));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * idsUpTo 와 같지만, 구간이 전체의 1/SELECTIVE_RATIO 를 넘으면 null
+     * - 구간 크기는 블록 크기 합과 경계 블록의 이진 탐색으로 센다. ( 블록 수에 비례, 복사 없음 )
+     */
+    long[] selectiveIdsUpTo(int maxPrice) {
+        long stamp = lock.readLock();
+        try {
+            int count = countUpTo(maxPrice);
+            int total = 0;
+            for (int b = 0; b < blockCount; b++) {
+                total += blocks[b].size;
+            }
+            return count > total / SELECTIVE_RATIO ? null : copyIds(count);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void clear() {
+        long stamp = lock.writeLock();
+        try {
+            blocks = new Block[]{new Block()};
+            blockCount = 1;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int countUpTo(int maxPrice) {
+        int count = 0;
+        for (int b = 0; b < blockCount; b++) {
+            Block block = blocks[b];
+            if (block.size > 0 && block.prices[block.size - 1] <= maxPrice) {
+                count += block.size;
+                continue;
+            }
+            int pos = position(block, maxPrice, Long.MAX_VALUE);
+            return count + (pos >= 0 ? pos + 1 : -(pos + 1));
+        }
+        return count;
+    }
+
+    /**
+     * 앞에서부터 count 개의 id
+     */
+    private long[] copyIds(int count) {
+        long[] result = new long[count];
+        int copied = 0;
+        for (int b = 0; b < blockCount && copied < count; b++) {
+            Block block = blocks[b];
+            int length = Math.min(block.size, count - copied);
+            System.arraycopy(block.ids, 0, result, copied, length);
+            copied += length;
+        }
+        return result;
+    }
+
+    private void insert(int price, long id) {
+        int b = blockIndex(price, id);
+        Block block = blocks[b];
+        int pos = position(block, price, id);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -(pos + 1);
+
+        // 블록이 가득 찬 경우 반으로 나누고, 들어갈 쪽을 다시 고른다.
+        if (block.size == BLOCK_CAPACITY) {
+            Block right = split(b);
+            if (pos > block.size) {
+                pos -= block.size;
+                block = right;
+            }
+        }
+
+        System.arraycopy(block.prices, pos, block.prices, pos + 1, block.size - pos);
+        System.arraycopy(block.ids, pos, block.ids, pos + 1, block.size - pos);
+        block.prices[pos] = price;
+        block.ids[pos] = id;
+        block.size++;
+    }
+
+    private void delete(int price, long id) {
+        int b = blockIndex(price, id);
+        Block block = blocks[b];
+        int pos = position(block, price, id);
+        if (pos < 0) {
+            return;
+        }
+
+        System.arraycopy(block.prices, pos + 1, block.prices, pos, block.size - pos - 1);
+        System.arraycopy(block.ids, pos + 1, block.ids, pos, block.size - pos - 1);
+        block.size--;
+
+        if (block.size == 0 && blockCount > 1) {
+            System.arraycopy(blocks, b + 1, blocks, b, blockCount - b - 1);
+            blocks[--blockCount] = null;
+        }
+    }
+
+    private Block split(int b) {
+        Block left = blocks[b];
+        Block right = new Block();
+        int half = left.size / 2;
+
+        right.size = left.size - half;
+        System.arraycopy(left.prices, half, right.prices, 0, right.size);
+        System.arraycopy(left.ids, half, right.ids, 0, right.size);
+        left.size = half;
+
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+        }
+        System.arraycopy(blocks, b + 1, blocks, b + 2, blockCount - b - 1);
+        blocks[b + 1] = right;
+        blockCount++;
+        return right;
+    }
+
+    /**
+     * 첫 항목이 (price, id) 이하인 마지막 블록, 없으면 첫 블록
+     */
+    private int blockIndex(int price, long id) {
+        int result = 0;
+        int low = 1;
+        int high = blockCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Block block = blocks[mid];
+            if (compare(block.prices[0], block.ids[0], price, id) <= 0) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 블록 안의 위치, 없으면 -(삽입 위치 + 1)
+     */
+    private static int position(Block block, int price, long id) {
+        int low = 0;
+        int high = block.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(block.prices[mid], block.ids[mid], price, id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int compare(int price1, long id1, int price2, long id2) {
+        int cmp = Integer.compare(price1, price2);
+        return cmp != 0 ? cmp : Long.compare(id1, id2);
+    }
+
+    private static final class Block {
+        final int[] prices = new int[BLOCK_CAPACITY];
+        final long[] ids = new long[BLOCK_CAPACITY];
+        int size;
+    }
+}
@@ -1,18 +1,31 @@
 package hello.springdb2.example.mybatis.config;
 
+import hello.springdb2.config.ItemFullTextConfig;
 import hello.springdb2.example.mybatis.repository.ItemMapper;
 import hello.springdb2.example.mybatis.repository.MyBatisItemRepository;
 import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.support.ItemNameSearchMode;
 import hello.springdb2.service.ItemService;
 import hello.springdb2.service.ItemServiceV1;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 @Configuration
 @RequiredArgsConstructor
+@Import(ItemFullTextConfig.class)
 public class MyBatisConfig {
     private final ItemMapper itemMapper;
+    private final SqlSessionFactory sqlSessionFactory;
+
+    @Value("${item.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${item.name-search:LIKE}")
+    private ItemNameSearchMode nameSearch;
 
     @Bean
     public ItemService itemService() {
@@ -21,6 +34,6 @@ public class MyBatisConfig {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new MyBatisItemRepository(itemMapper);
+        return new MyBatisItemRepository(itemMapper, sqlSessionFactory, batchSize, nameSearch);
     }
 }
@@ -1,10 +1,12 @@
 package hello.springdb2.example.mybatis.repository;
 
 import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,12 +15,30 @@ import java.util.Optional;
 public interface ItemMapper {
     void save(Item item);
 
-    void update(
+    int update(
             @Param("id") Long id,
             @Param("updateParam") ItemUpdateDto updateParam
     );
 
     List<Item> findAll(ItemSearchCond cond);
 
+    Cursor<Item> streamAll(ItemSearchCond cond);
+
+    List<Item> findPage(
+            @Param("cond") ItemSearchCond cond,
+            @Param("page") ItemPageCond page
+    );
+
+    List<Item> findAllFullText(ItemSearchCond cond);
+
+    Cursor<Item> streamAllFullText(ItemSearchCond cond);
+
+    List<Item> findPageFullText(
+            @Param("cond") ItemSearchCond cond,
+            @Param("page") ItemPageCond page
+    );
+
     Optional<Item> findById(Long id);
+
+    List<Item> findAllById(@Param("ids") List<Long> ids);
 }
@@ -1,41 +1,156 @@
 package hello.springdb2.example.mybatis.repository;
 
 import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import hello.springdb2.repository.ItemRepository;
-import lombok.RequiredArgsConstructor;
+import hello.springdb2.repository.support.ItemBatchInsert;
+import hello.springdb2.repository.support.ItemIdChunks;
+import hello.springdb2.repository.support.ItemNameSearchMode;
+import hello.springdb2.repository.support.ItemVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+@Slf4j
 @Repository
-@RequiredArgsConstructor
 public class MyBatisItemRepository implements ItemRepository {
     private final ItemMapper itemMapper;
+    private final SqlSessionTemplate batchSqlSession;
+    private final int batchSize;
+    private final ItemNameSearchMode nameSearch;
+
+    public MyBatisItemRepository(
+            ItemMapper itemMapper,
+            SqlSessionFactory sqlSessionFactory,
+            int batchSize
+    ) {
+        this(itemMapper, sqlSessionFactory, batchSize, ItemNameSearchMode.LIKE);
+    }
+
+    public MyBatisItemRepository(
+            ItemMapper itemMapper,
+            SqlSessionFactory sqlSessionFactory,
+            int batchSize,
+            ItemNameSearchMode nameSearch
+    ) {
+        this.itemMapper = itemMapper;
+        this.batchSqlSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        this.batchSize = batchSize;
+        this.nameSearch = nameSearch;
+    }
 
     @Override
     public Item save(Item item) {
         itemMapper.save(item);
+        item.setVersion(ItemVersions.INITIAL);
         return item;
     }
 
+    /**
+     * BATCH 실행기로 같은 insert 를 모아 batchSize 건마다 flush 한다. ( 생성된 id 는 flush 때 채워진다. )
+     * - 한 트랜잭션 안에서는 실행기 종류를 바꿀 수 없으므로 항상 새 트랜잭션( REQUIRES_NEW )으로 실행한다.
+     * - 제약: 호출자의 트랜잭션과 별개로 커밋된다. ( 호출자가 롤백해도 저장된 행은 남는다. )
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Item> saveAll(Collection<Item> items) {
+        long start = System.nanoTime();
+        ItemMapper batchMapper = batchSqlSession.getMapper(ItemMapper.class);
+
+        int count = 0;
+        for (Item item : items) {
+            batchMapper.save(item);
+            item.setVersion(ItemVersions.INITIAL);
+            if (++count % batchSize == 0) {
+                batchSqlSession.flushStatements();
+            }
+        }
+        batchSqlSession.flushStatements();
+
+        log.info("saveAll rows={}, rows/sec={}", items.size(), ItemBatchInsert.rowsPerSecond(items.size(), start));
+        return new ArrayList<>(items);
+    }
+
     @Override
     public void update(
             Long itemId,
             ItemUpdateDto updateParam
     ) {
-        itemMapper.update(itemId, updateParam);
+        int updatedRows = itemMapper.update(itemId, updateParam);
+        ItemVersions.checkUpdated(updatedRows, itemId, updateParam);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Item> findById(Long id) {
         return itemMapper.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Item> findAllById(Collection<Long> ids) {
+        List<Item> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : ItemIdChunks.chunks(ids)) {
+            result.addAll(itemMapper.findAllById(chunk));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Item> findAll(ItemSearchCond cond) {
+        if (isFullText(cond)) {
+            return itemMapper.findAllFullText(cond);
+        }
         return itemMapper.findAll(cond);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        if (isFullText(cond)) {
+            return itemMapper.findPageFullText(cond, page);
+        }
+        return itemMapper.findPage(cond, page);
+    }
+
+    /**
+     * Cursor 는 SqlSession 이 열려 있는 동안만 읽을 수 있으므로 트랜잭션 안에서 끝까지 소비한다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        Cursor<Item> items = isFullText(cond) ? itemMapper.streamAllFullText(cond) : itemMapper.streamAll(cond);
+        try (Cursor<Item> cursor = items) {
+            cursor.forEach(action);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isFullText(ItemSearchCond cond) {
+        return nameSearch == ItemNameSearchMode.FULL_TEXT && StringUtils.hasText(cond.getItemName());
+    }
 }
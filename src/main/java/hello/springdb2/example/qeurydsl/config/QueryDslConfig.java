@@ -1,20 +1,31 @@
 package hello.springdb2.example.qeurydsl.config;
 
+import hello.springdb2.config.ItemFullTextConfig;
 import hello.springdb2.example.qeurydsl.repository.JpaItemRepositoryV3;
 import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.support.ItemNameSearchMode;
 import hello.springdb2.service.ItemService;
 import hello.springdb2.service.ItemServiceV1;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 @Configuration
 @RequiredArgsConstructor
+@Import(ItemFullTextConfig.class)
 public class QueryDslConfig {
 
     private final EntityManager em;
 
+    @Value("${item.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${item.name-search:LIKE}")
+    private ItemNameSearchMode nameSearch;
+
     @Bean
     public ItemService itemService() {
         return new ItemServiceV1(itemRepository());
@@ -22,6 +33,6 @@ public class QueryDslConfig {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new JpaItemRepositoryV3(em);
+        return new JpaItemRepositoryV3(em, batchSize, nameSearch);
     }
 }
@@ -5,26 +5,64 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.springdb2.domain.Item;
 import hello.springdb2.domain.QItem;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.support.ItemBatchInsert;
+import hello.springdb2.repository.support.ItemCacheRegions;
+import hello.springdb2.repository.support.ItemDirectUpdate;
+import hello.springdb2.repository.support.ItemIdChunks;
+import hello.springdb2.repository.support.ItemNameSearchMode;
+import hello.springdb2.repository.support.ItemNamedQueries;
+import hello.springdb2.repository.support.ItemSearchShape;
+import hello.springdb2.repository.support.ItemSearchSql;
+import hello.springdb2.repository.support.JpaScroll;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+@Slf4j
 @Repository
 @Transactional
 public class JpaItemRepositoryV3 implements ItemRepository {
+    private static final ItemSearchSql FULL_TEXT = ItemSearchSql.NAMED_FULL_TEXT;
+
     private final EntityManager em;
     private final JPAQueryFactory query;
+    private final int batchSize;
+    private final ItemNameSearchMode nameSearch;
 
     public JpaItemRepositoryV3(EntityManager em) {
+        this(em, ItemBatchInsert.DEFAULT_BATCH_SIZE);
+    }
+
+    public JpaItemRepositoryV3(
+            EntityManager em,
+            int batchSize
+    ) {
+        this(em, batchSize, ItemNameSearchMode.LIKE);
+    }
+
+    public JpaItemRepositoryV3(
+            EntityManager em,
+            int batchSize,
+            ItemNameSearchMode nameSearch
+    ) {
         this.em = em;
         this.query = new JPAQueryFactory(em);
+        this.batchSize = batchSize;
+        this.nameSearch = nameSearch;
     }
 
     @Override
@@ -33,31 +71,134 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         return item;
     }
 
+    /**
+     * IDENTITY 전략은 insert 마다 id 를 받아와야 해서 하이버네이트가 insert 를 배치로 묶지 못한다.
+     * 같은 트랜잭션의 커넥션에서 JDBC 배치로 저장하고 id 를 채운다. ( 반환되는 Item 은 영속 상태가 아니다. )
+     */
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        long start = System.nanoTime();
+        em.flush();
+        em.unwrap(Session.class).doWork(con -> ItemBatchInsert.insert(con, items, batchSize));
+        ItemCacheRegions.afterJdbcWrite(em);
+
+        log.info("saveAll rows={}, rows/sec={}", items.size(), ItemBatchInsert.rowsPerSecond(items.size(), start));
+        return new ArrayList<>(items);
+    }
+
+    /**
+     * 조회 후 변경 감지 대신 QueryDSL update 절 한 번으로 수정한다. ( ItemDirectUpdate )
+     */
     @Override
     public void update(
             Long itemId,
             ItemUpdateDto updateParam
     ) {
-        Item findItem = findById(itemId).orElseThrow();
-        findItem.update(updateParam);
+        QItem item = QItem.item;
+
+        long updatedRows = query.update(item)
+                .set(item.itemName, updateParam.getItemName())
+                .set(item.price, updateParam.getPrice())
+                .set(item.quantity, updateParam.getQuantity())
+                .set(item.version, item.version.add(1L))
+                .where(item.id.eq(itemId), versionEq(updateParam.getVersion()))
+                .execute();
+
+        ItemDirectUpdate.afterUpdate(em, itemId, updateParam, updatedRows);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Item> findById(Long id) {
         return Optional.ofNullable(em.find(Item.class, id));
     }
 
+    /**
+     * ItemIdChunks 조각마다 in 쿼리 한 번 - 조각 크기별로 SQL 이 고정된다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findAllById(Collection<Long> ids) {
+        QItem item = QItem.item;
+
+        List<Item> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : ItemIdChunks.chunks(ids)) {
+            result.addAll(query.selectFrom(item)
+                    .where(item.id.in(chunk))
+                    .fetch());
+        }
+        return result;
+    }
+
+    /**
+     * 검색 조건은 네 가지 모양뿐이라 미리 파싱된 @NamedQuery 를 쓴다. ( ItemNamedQueries )
+     */
     @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
     public List<Item> findAll(ItemSearchCond cond) {
-        String itemName = cond.getItemName();
-        Integer maxPrice = cond.getMaxPrice();
+        if (isFullText(cond)) {
+            return fullTextQuery(FULL_TEXT.findAll(ItemSearchShape.of(cond)), cond).getResultList();
+        }
+        return ItemNamedQueries.search(em, cond).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(ItemSearchCond cond, Consumer<Item> action) {
+        if (isFullText(cond)) {
+            JpaScroll.forEach(em, fullTextQuery(FULL_TEXT.findAll(ItemSearchShape.of(cond)), cond), action);
+            return;
+        }
+        JpaScroll.forEach(em, ItemNamedQueries.search(em, cond), action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Item> findPage(ItemSearchCond cond, ItemPageCond page) {
+        if (isFullText(cond)) {
+            Query fullTextQuery = fullTextQuery(FULL_TEXT.findPage(ItemSearchShape.of(cond), page), cond)
+                    .setParameter("fetchSize", page.getFetchSize());
+            if (page.isBackward()) {
+                fullTextQuery.setParameter("beforeId", page.getBeforeId());
+            } else if (page.getAfterId() != null) {
+                fullTextQuery.setParameter("afterId", page.getAfterId());
+            }
+            return fullTextQuery.getResultList();
+        }
+
+        QItem item = QItem.item;
 
-        return query.select(QItem.item)
-                .from(QItem.item)
-                .where(likeItemName(itemName), maxPrice(maxPrice))
+        return query.select(item)
+                .from(item)
+                .where(
+                        likeItemName(cond.getItemName()),
+                        maxPrice(cond.getMaxPrice()),
+                        idAfter(page),
+                        idBefore(page)
+                )
+                .orderBy(page.isBackward() ? item.id.desc() : item.id.asc())
+                .limit(page.getFetchSize())
                 .fetch();
     }
 
+    private boolean isFullText(ItemSearchCond cond) {
+        return nameSearch == ItemNameSearchMode.FULL_TEXT && StringUtils.hasText(cond.getItemName());
+    }
+
+    /**
+     * FT_SEARCH_DATA 는 JPQL 로 표현할 수 없으므로 네이티브 쿼리로 조회하고 Item 엔티티로 받는다.
+     */
+    private Query fullTextQuery(String sql, ItemSearchCond cond) {
+        Query fullTextQuery = em.createNativeQuery(sql, Item.class)
+                .setParameter("itemName", cond.getItemName());
+        if (cond.getMaxPrice() != null) {
+            fullTextQuery.setParameter("maxPrice", cond.getMaxPrice());
+        }
+        return fullTextQuery;
+    }
+
     private BooleanExpression likeItemName(String itemName) {
         if (StringUtils.hasText(itemName)) {
             return QItem.item.itemName.like("%" + itemName + "%");
@@ -72,6 +213,27 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         return null;
     }
 
+    private BooleanExpression versionEq(Long version) {
+        if (version != null) {
+            return QItem.item.version.eq(version);
+        }
+        return null;
+    }
+
+    private BooleanExpression idAfter(ItemPageCond page) {
+        if (!page.isBackward() && page.getAfterId() != null) {
+            return QItem.item.id.gt(page.getAfterId());
+        }
+        return null;
+    }
+
+    private BooleanExpression idBefore(ItemPageCond page) {
+        if (page.isBackward()) {
+            return QItem.item.id.lt(page.getBeforeId());
+        }
+        return null;
+    }
+
     public List<Item> findAllOld(ItemSearchCond cond) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
@@ -0,0 +1,80 @@
+package hello.springdb2.example.sharding.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.springdb2.example.jdbctemplate.repository.JdbcTemplateItemRepositoryV3;
+import hello.springdb2.example.sharding.repository.ShardedItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.service.ItemService;
+import hello.springdb2.service.ItemServiceV1;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * item 을 id 로 나눠 item.sharding.shards 개의 DB 에 저장한다. ( 샤드마다 JdbcTemplateItemRepositoryV3 )
+ * - item.sharding.shards: 샤드 수 ( 기본 2, 전역 id 에 새겨지므로 데이터가 생긴 뒤에는 바꾸지 않는다. )
+ * - item.sharding.url: 샤드 JDBC URL, %d 는 샤드 번호 ( 기본 로컬 메모리 H2 )
+ * - 계정은 spring.datasource.username / password, 스키마는 샤드마다 Flyway 로 만든다.
+ * <p>
+ * 샤드 DataSource 는 빈으로 등록하지 않는다. ( 애플리케이션 DataSource 하나를 전제로 한 자동 설정과 겹치지 않게 )
+ */
+@Configuration
+public class ShardingConfig implements DisposableBean {
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+
+    @Value("${item.sharding.shards:2}")
+    private int shardCount;
+
+    @Value("${item.sharding.url:jdbc:h2:mem:item-shard-%d;DB_CLOSE_DELAY=-1}")
+    private String url;
+
+    @Value("${spring.datasource.username:sa}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    @Value("${item.batch-size:1000}")
+    private int batchSize;
+
+    @Bean
+    public ItemService itemService() {
+        return new ItemServiceV1(itemRepository());
+    }
+
+    @Bean
+    public ItemRepository itemRepository() {
+        List<ItemRepository> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("item-shard-" + shard);
+            dataSource.setJdbcUrl(String.format(url, shard));
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSources.add(dataSource);
+
+            Flyway.configure().dataSource(dataSource).load().migrate();
+            shards.add(new JdbcTemplateItemRepositoryV3(dataSource, batchSize));
+        }
+        return new ShardedItemRepository(shards);
+    }
+
+    /**
+     * DB_CLOSE_DELAY=-1 인 메모리 H2 는 풀을 닫아도 남으므로 먼저 내린다. ( 같은 JVM 에서 다시 띄우는 벤치마크, 테스트 )
+     */
+    @Override
+    public void destroy() {
+        for (HikariDataSource dataSource : dataSources) {
+            if (dataSource.getJdbcUrl().startsWith("jdbc:h2:mem:")) {
+                new JdbcTemplate(dataSource).execute("shutdown");
+            }
+            dataSource.close();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package hello.springdb2.example.sharding.repository;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.ItemRepository;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * id 로 나눈 N 개의 샤드( 아무 ItemRepository 구현 )를 하나의 저장소로 보여준다.
+ * - 전역 id = 샤드 id * N + 샤드 번호. 샤드마다 자기 시퀀스로 id 를 발급해도 전역 id 는 겹치지 않는다.
+ * - findById, update 는 id % N 샤드 하나로만 간다. findAllById 는 id 가 있는 샤드에만 간다.
+ * - 새 Item 은 샤드를 돌아가며 저장한다. ( 샤드별 건수가 고르게 유지된다. )
+ * - findAll, findPage 는 모든 샤드에 동시에 보내고 id 순서로 합친다. ( scatter-gather )
+ * <p>
+ * N 은 id 에 새겨지므로 운영 중에 바꿀 수 없다. ( 바꾸려면 데이터를 다시 나눠야 한다. )
+ * 샤드에는 복사본을 넘기고 결과도 전역 id 를 가진 복사본으로 돌려준다. ( 메모리 샤드가 저장한 객체를 건드리지 않는다. )
+ * <p>
+ * 여러 샤드에 걸친 쓰기( saveAll )는 원자적이지 않다.
+ * - 샤드별 saveAll 은 풀 스레드에서 실행되므로 호출자의 트랜잭션에 참여하지 않고, 샤드마다 따로 커밋된다.
+ * - 한 샤드가 실패하면 예외가 나지만 다른 샤드에 저장된 행은 남고, 입력 Item 에는 id 가 채워지지 않는다.
+ * - 호출자가 롤백해도 샤드에 저장된 행은 되돌려지지 않는다. 필요하면 호출하는 쪽에서 다시 조회해 정리한다.
+ */
+public class ShardedItemRepository implements ItemRepository, Closeable {
+    private final List<ItemRepository> shards;
+    private final ExecutorService executor;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ShardedItemRepository(
+            List<? extends ItemRepository> shards
+    ) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("shards is empty");
+        }
+        this.shards = List.copyOf(shards);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "item-shard-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(long id) {
+        return (int) Math.floorMod(id, (long) shards.size());
+    }
+
+    @Override
+    public Item save(
+            Item item
+    ) {
+        int shard = Math.floorMod(nextShard.getAndIncrement(), shards.size());
+        Item saved = shards.get(shard).save(copy(item, null));
+        item.setId(globalId(shard, saved.getId()));
+        item.setVersion(saved.getVersion());
+        return item;
+    }
+
+    /**
+     * 샤드별로 나눠 동시에 저장하고, 입력 순서대로 전역 id 를 채운다.
+     * - 샤드 사이에 원자적이지 않다. ( 클래스 설명 참고 )
+     */
+    @Override
+    public List<Item> saveAll(
+            Collection<Item> items
+    ) {
+        List<Item> ordered = new ArrayList<>(items);
+        int first = nextShard.getAndAdd(ordered.size());
+
+        List<List<Item>> copies = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            copies.add(new ArrayList<>());
+        }
+        for (int i = 0; i < ordered.size(); i++) {
+            copies.get(Math.floorMod(first + i, shards.size())).add(copy(ordered.get(i), null));
+        }
+
+        List<List<Item>> saved = scatter(shard -> copies.get(shard).isEmpty()
+                ? List.of()
+                : shards.get(shard).saveAll(copies.get(shard)));
+
+        int[] positions = new int[shards.size()];
+        for (int i = 0; i < ordered.size(); i++) {
+            int shard = Math.floorMod(first + i, shards.size());
+            Item savedItem = saved.get(shard).get(positions[shard]++);
+            ordered.get(i).setId(globalId(shard, savedItem.getId()));
+            ordered.get(i).setVersion(savedItem.getVersion());
+        }
+        return ordered;
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        shards.get(shardOf(itemId)).update(localId(itemId), updateParam);
+    }
+
+    @Override
+    public Optional<Item> findById(
+            Long id
+    ) {
+        int shard = shardOf(id);
+        return shards.get(shard).findById(localId(id)).map(item -> toGlobal(shard, item));
+    }
+
+    /**
+     * id 를 샤드별로 나눠 해당 샤드에만 동시에 보낸다.
+     */
+    @Override
+    public List<Item> findAllById(
+            Collection<Long> ids
+    ) {
+        List<List<Long>> localIds = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            localIds.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            if (id != null) {
+                localIds.get(shardOf(id)).add(localId(id));
+            }
+        }
+        return gather(scatter(shard -> localIds.get(shard).isEmpty()
+                ? List.of()
+                : shards.get(shard).findAllById(localIds.get(shard))));
+    }
+
+    /**
+     * 샤드 결과는 각자 id 순서이므로, 이어 붙인 뒤 정렬하면 이미 정렬된 구간끼리 병합된다.
+     */
+    @Override
+    public List<Item> findAll(
+            ItemSearchCond cond
+    ) {
+        List<Item> result = gather(scatter(shard -> shards.get(shard).findAll(cond)));
+        result.sort(Comparator.comparing(Item::getId));
+        return result;
+    }
+
+    /**
+     * 샤드마다 전역 커서를 샤드 id 커서로 바꿔 fetchSize 건씩 읽고, 합친 뒤 앞에서 fetchSize 건만 남긴다.
+     */
+    @Override
+    public List<Item> findPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        List<Item> result = gather(scatter(shard -> shards.get(shard).findPage(cond, localPage(shard, page))));
+        Comparator<Item> order = Comparator.comparing(Item::getId);
+        result.sort(page.isBackward() ? order.reversed() : order);
+        return result.size() > page.getFetchSize() ? new ArrayList<>(result.subList(0, page.getFetchSize())) : result;
+    }
+
+    /**
+     * action 이 스레드 안전하지 않을 수 있으므로 샤드를 차례로 읽는다. ( 전체 id 순서는 보장하지 않는다. )
+     */
+    @Override
+    public void streamAll(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int current = shard;
+            shards.get(shard).streamAll(cond, item -> action.accept(toGlobal(current, item)));
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    long globalId(
+            int shard,
+            long localId
+    ) {
+        return localId * shards.size() + shard;
+    }
+
+    long localId(long id) {
+        return Math.floorDiv(id, (long) shards.size());
+    }
+
+    /**
+     * id > afterId 는 샤드 id > floor((afterId - shard) / N),
+     * id < beforeId 는 샤드 id < ceil((beforeId - shard) / N) 과 같다.
+     */
+    private ItemPageCond localPage(
+            int shard,
+            ItemPageCond page
+    ) {
+        long n = shards.size();
+        if (page.isBackward()) {
+            return new ItemPageCond(null, Math.floorDiv(page.getBeforeId() - shard + n - 1, n), page.getSize());
+        }
+        Long afterId = page.getAfterId() == null ? null : Math.floorDiv(page.getAfterId() - shard, n);
+        return new ItemPageCond(afterId, null, page.getSize());
+    }
+
+    /**
+     * 샤드가 하나면 호출한 스레드에서 바로 실행한다.
+     */
+    private <T> List<T> scatter(IntFunction<T> task) {
+        if (shards.size() == 1) {
+            return List.of(task.apply(0));
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int current = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(current), executor));
+        }
+
+        List<T> results = new ArrayList<>();
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private List<Item> gather(List<List<Item>> perShard) {
+        List<Item> result = new ArrayList<>(perShard.stream().mapToInt(List::size).sum());
+        for (int shard = 0; shard < perShard.size(); shard++) {
+            for (Item item : perShard.get(shard)) {
+                result.add(toGlobal(shard, item));
+            }
+        }
+        return result;
+    }
+
+    private Item toGlobal(
+            int shard,
+            Item item
+    ) {
+        return copy(item, globalId(shard, item.getId()));
+    }
+
+    private static Item copy(
+            Item item,
+            Long id
+    ) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(id);
+        copy.setVersion(item.getVersion());
+        return copy;
+    }
+}
@@ -5,7 +5,9 @@ import hello.springdb2.example.springdatajpa.repository.SpringDataJpaItemReposit
 import hello.springdb2.repository.ItemRepository;
 import hello.springdb2.service.ItemService;
 import hello.springdb2.service.ItemServiceV1;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,6 +16,10 @@ import org.springframework.context.annotation.Configuration;
 public class SpringDataJpaConfig {
 
     private final SpringDataJpaItemRepository springDataJpaItemRepository;
+    private final EntityManager em;
+
+    @Value("${item.batch-size:1000}")
+    private int batchSize;
 
     @Bean
     public ItemService itemService() {
@@ -22,6 +28,6 @@ public class SpringDataJpaConfig {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new JpaItemRepositoryV2(springDataJpaItemRepository);
+        return new JpaItemRepositoryV2(springDataJpaItemRepository, em, batchSize);
     }
 }
@@ -1,41 +1,104 @@
 package hello.springdb2.example.springdatajpa.repository;
 
 import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import hello.springdb2.repository.ItemRepository;
-import lombok.RequiredArgsConstructor;
+import hello.springdb2.repository.support.ItemBatchInsert;
+import hello.springdb2.repository.support.ItemCacheRegions;
+import hello.springdb2.repository.support.ItemDirectUpdate;
+import hello.springdb2.repository.support.ItemIdChunks;
+import hello.springdb2.repository.support.JpaScroll;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+@Slf4j
 @Repository
 @Transactional
-@RequiredArgsConstructor
 public class JpaItemRepositoryV2 implements ItemRepository {
 
     private final SpringDataJpaItemRepository repository;
+    private final EntityManager em;
+    private final int batchSize;
+
+    public JpaItemRepositoryV2(
+            SpringDataJpaItemRepository repository,
+            EntityManager em,
+            int batchSize
+    ) {
+        this.repository = repository;
+        this.em = em;
+        this.batchSize = batchSize;
+    }
 
     @Override
     public Item save(Item item) {
         return repository.save(item);
     }
 
+    /**
+     * IDENTITY 전략은 insert 마다 id 를 받아와야 해서 하이버네이트가 insert 를 배치로 묶지 못한다.
+     * 같은 트랜잭션의 커넥션에서 JDBC 배치로 저장하고 id 를 채운다. ( 반환되는 Item 은 영속 상태가 아니다. )
+     */
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        long start = System.nanoTime();
+        em.flush();
+        em.unwrap(Session.class).doWork(con -> ItemBatchInsert.insert(con, items, batchSize));
+        ItemCacheRegions.afterJdbcWrite(em);
+
+        log.info("saveAll rows={}, rows/sec={}", items.size(), ItemBatchInsert.rowsPerSecond(items.size(), start));
+        return new ArrayList<>(items);
+    }
+
+    /**
+     * 조회 후 변경 감지 대신 @Modifying JPQL update 한 번으로 수정한다. ( ItemDirectUpdate )
+     */
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
-        Item findItem = repository.findById(itemId).orElseThrow();
-        findItem.update(updateParam);
+        int updatedRows = repository.updateItem(
+                itemId, updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity(), updateParam.getVersion()
+        );
+        ItemDirectUpdate.afterUpdate(em, itemId, updateParam, updatedRows);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Item> findById(Long id) {
         return repository.findById(id);
     }
 
+    /**
+     * 스프링 데이터 findAllById ( id in 조건 ) 를 ItemIdChunks 조각마다 - 조각 크기별로 SQL 이 고정된다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findAllById(Collection<Long> ids) {
+        List<Item> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : ItemIdChunks.chunks(ids)) {
+            result.addAll(repository.findAllById(chunk));
+        }
+        return result;
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<Item> findAll(ItemSearchCond cond) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
@@ -50,4 +113,61 @@ public class JpaItemRepositoryV2 implements ItemRepository {
             return repository.findAll();
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> findPage(ItemSearchCond cond, ItemPageCond page) {
+        String itemName = cond.getItemName();
+        Integer maxPrice = cond.getMaxPrice();
+
+        // 키 범위가 없는 쪽은 끝값으로 채워 조건 모양을 하나로 맞춘다.
+        Long afterId = !page.isBackward() && page.getAfterId() != null ? page.getAfterId() : Long.MIN_VALUE;
+        Long beforeId = page.isBackward() ? page.getBeforeId() : Long.MAX_VALUE;
+        Sort sort = page.isBackward() ? Sort.by("id").descending() : Sort.by("id").ascending();
+        Pageable pageable = PageRequest.of(0, page.getFetchSize(), sort);
+
+        if (StringUtils.hasText(itemName) && maxPrice != null) {
+            return repository.findPageByItemNameLikeAndPriceLessThanEqual(
+                    "%" + itemName + "%", maxPrice, afterId, beforeId, pageable);
+        } else if (StringUtils.hasText(itemName)) {
+            return repository.findPageByItemNameLike("%" + itemName + "%", afterId, beforeId, pageable);
+        } else if (maxPrice != null) {
+            return repository.findPageByPriceLessThanEqual(maxPrice, afterId, beforeId, pageable);
+        } else {
+            return repository.findPage(afterId, beforeId, pageable);
+        }
+    }
+
+    /**
+     * 스프링 데이터 JPA 스트림으로 읽고, JpaScroll.CLEAR_INTERVAL 건마다 영속성 컨텍스트를 비운다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(ItemSearchCond cond, Consumer<Item> action) {
+        try (Stream<Item> stream = streamOf(cond)) {
+            Iterator<Item> iterator = stream.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % JpaScroll.CLEAR_INTERVAL == 0) {
+                    em.clear();
+                }
+            }
+        }
+    }
+
+    private Stream<Item> streamOf(ItemSearchCond cond) {
+        String itemName = cond.getItemName();
+        Integer maxPrice = cond.getMaxPrice();
+
+        if (StringUtils.hasText(itemName) && maxPrice != null) {
+            return repository.streamByItemNameLikeAndPriceLessThanEqual("%" + itemName + "%", maxPrice);
+        } else if (StringUtils.hasText(itemName)) {
+            return repository.streamByItemNameLike("%" + itemName + "%");
+        } else if (maxPrice != null) {
+            return repository.streamByPriceLessThanEqual(maxPrice);
+        } else {
+            return repository.streamAll();
+        }
+    }
 }
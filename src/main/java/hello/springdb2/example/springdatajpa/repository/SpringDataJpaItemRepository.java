@@ -1,27 +1,140 @@
 package hello.springdb2.example.springdatajpa.repository;
 
 import hello.springdb2.domain.Item;
+import hello.springdb2.repository.support.ItemCacheRegions;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface SpringDataJpaItemRepository extends JpaRepository<Item, Long> {
 
+    // 검색 쿼리는 쿼리 캐시 ( ItemCacheRegions.ITEM_SEARCH ) 를 쓴다.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemCacheRegions.ITEM_SEARCH)
+    })
+    @Override
+    List<Item> findAll();
+
     // Item.itemName Like '%:itemName%'
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemCacheRegions.ITEM_SEARCH)
+    })
     List<Item> findByItemNameLike(String itemName);
 
     // Item.price <= :price
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemCacheRegions.ITEM_SEARCH)
+    })
     List<Item> findByPriceLessThanEqual(Integer price);
 
     // 쿼리 메서드 ( 아래 메서드와 동일한 기능 수행 )
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemCacheRegions.ITEM_SEARCH)
+    })
     List<Item> findByItemNameLikeAndPriceLessThanEqual(String itemName, Integer price);
 
     // 쿼리 직접 실행
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemCacheRegions.ITEM_SEARCH)
+    })
     @Query("select i from Item i where i.itemName like :itemName and i.price <= :price")
     List<Item> findItems(
             @Param("itemName") String itemName,
             @Param("price") Integer price
     );
+
+    // 조회 없이 update 한 번 ( 반환: 수정된 행 수 )
+    @Modifying
+    @Query("update Item i set i.itemName = :itemName, i.price = :price, i.quantity = :quantity, i.version = i.version + 1"
+            + " where i.id = :id and i.version = coalesce(:version, i.version)")
+    int updateItem(
+            @Param("id") Long id,
+            @Param("itemName") String itemName,
+            @Param("price") Integer price,
+            @Param("quantity") Integer quantity,
+            @Param("version") Long version
+    );
+
+    // 키셋 페이지 ( afterId < id < beforeId, 정렬과 건수는 Pageable, List 반환이라 count 쿼리 없음 )
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemCacheRegions.ITEM_SEARCH)
+    })
+    @Query("select i from Item i where i.id > :afterId and i.id < :beforeId")
+    List<Item> findPage(
+            @Param("afterId") Long afterId,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemCacheRegions.ITEM_SEARCH)
+    })
+    @Query("select i from Item i where i.itemName like :itemName and i.id > :afterId and i.id < :beforeId")
+    List<Item> findPageByItemNameLike(
+            @Param("itemName") String itemName,
+            @Param("afterId") Long afterId,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemCacheRegions.ITEM_SEARCH)
+    })
+    @Query("select i from Item i where i.price <= :price and i.id > :afterId and i.id < :beforeId")
+    List<Item> findPageByPriceLessThanEqual(
+            @Param("price") Integer price,
+            @Param("afterId") Long afterId,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemCacheRegions.ITEM_SEARCH)
+    })
+    @Query("select i from Item i where i.itemName like :itemName and i.price <= :price"
+            + " and i.id > :afterId and i.id < :beforeId")
+    List<Item> findPageByItemNameLikeAndPriceLessThanEqual(
+            @Param("itemName") String itemName,
+            @Param("price") Integer price,
+            @Param("afterId") Long afterId,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    // 스트리밍 조회 ( 트랜잭션 안에서 소비하고 닫아야 한다. )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select i from Item i")
+    Stream<Item> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select i from Item i where i.itemName like :itemName")
+    Stream<Item> streamByItemNameLike(@Param("itemName") String itemName);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select i from Item i where i.price <= :price")
+    Stream<Item> streamByPriceLessThanEqual(@Param("price") Integer price);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select i from Item i where i.itemName like :itemName and i.price <= :price")
+    Stream<Item> streamByItemNameLikeAndPriceLessThanEqual(
+            @Param("itemName") String itemName,
+            @Param("price") Integer price
+    );
 }
@@ -8,6 +8,7 @@ import hello.springdb2.repository.ItemRepository;
 import hello.springdb2.service.ItemService;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,6 +18,9 @@ public class V2Config {
     private final EntityManager em;
     private final ItemRepositoryV2 itemRepositoryV2;
 
+    @Value("${item.batch-size:1000}")
+    private int batchSize;
+
     @Bean
     public ItemService itemService() {
         return new ItemServiceV2(itemRepositoryV2, itemQueryRepository());
@@ -29,6 +33,6 @@ public class V2Config {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new JpaItemRepositoryV3(em);
+        return new JpaItemRepositoryV3(em, batchSize);
     }
 }
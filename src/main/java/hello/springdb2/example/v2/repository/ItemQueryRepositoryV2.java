@@ -3,30 +3,69 @@ package hello.springdb2.example.v2.repository;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.repository.support.ItemCacheRegions;
+import hello.springdb2.repository.support.ItemNamedQueries;
+import hello.springdb2.repository.support.JpaScroll;
 import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static hello.springdb2.domain.QItem.item;
 
 @Repository
 public class ItemQueryRepositoryV2 {
+    private final EntityManager em;
     private final JPAQueryFactory query;
 
     public ItemQueryRepositoryV2(EntityManager em) {
+        this.em = em;
         this.query = new JPAQueryFactory(em);
     }
 
+    /**
+     * 검색 조건은 네 가지 모양뿐이라 미리 파싱된 @NamedQuery 를 쓴다. ( ItemNamedQueries )
+     * 목록 조회 결과는 읽기 전용 엔티티로 받고, 조회 전에 flush 하지 않는다.
+     * 결과 id 목록은 쿼리 캐시 ( ItemCacheRegions.ITEM_SEARCH ) 에 두고, item 테이블이 바뀌면 무효가 된다.
+     */
     public List<Item> findAll(ItemSearchCond cond) {
+        return ItemNamedQueries.search(em, cond)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, ItemCacheRegions.ITEM_SEARCH)
+                .getResultList();
+    }
+
+    /**
+     * 읽기 전용 트랜잭션 안에서 호출해야 한다. ( JpaScroll 참고 )
+     */
+    public void streamAll(ItemSearchCond cond, Consumer<Item> action) {
+        JpaScroll.forEach(em, ItemNamedQueries.search(em, cond).setHint(HibernateHints.HINT_READ_ONLY, true), action);
+    }
+
+    public List<Item> findPage(ItemSearchCond cond, ItemPageCond page) {
         return query.select(item)
                 .from(item)
                 .where(
                         maxPrice(cond.getMaxPrice()),
-                        likeItemName(cond.getItemName())
-                ).fetch();
+                        likeItemName(cond.getItemName()),
+                        idAfter(page),
+                        idBefore(page)
+                )
+                .orderBy(page.isBackward() ? item.id.desc() : item.id.asc())
+                .limit(page.getFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, ItemCacheRegions.ITEM_SEARCH)
+                .fetch();
     }
 
     private BooleanExpression likeItemName(String itemName) {
@@ -42,4 +81,18 @@ public class ItemQueryRepositoryV2 {
         }
         return null;
     }
+
+    private BooleanExpression idAfter(ItemPageCond page) {
+        if (!page.isBackward() && page.getAfterId() != null) {
+            return item.id.gt(page.getAfterId());
+        }
+        return null;
+    }
+
+    private BooleanExpression idBefore(ItemPageCond page) {
+        if (page.isBackward()) {
+            return item.id.lt(page.getBeforeId());
+        }
+        return null;
+    }
 }
@@ -2,6 +2,24 @@ package hello.springdb2.example.v2.repository;
 
 import hello.springdb2.domain.Item;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ItemRepositoryV2 extends JpaRepository<Item, Long> {
+
+    /**
+     * 조회 없이 update 한 번 ( 반환: 수정된 행 수 )
+     * - 실행 전에 flush 하고, 실행 후 영속성 컨텍스트를 비워 수정 전 엔티티가 남지 않게 한다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Item i set i.itemName = :itemName, i.price = :price, i.quantity = :quantity, i.version = i.version + 1"
+            + " where i.id = :id and i.version = coalesce(:version, i.version)")
+    int updateItem(
+            @Param("id") Long id,
+            @Param("itemName") String itemName,
+            @Param("price") Integer price,
+            @Param("quantity") Integer quantity,
+            @Param("version") Long version
+    );
 }
@@ -2,17 +2,25 @@ package hello.springdb2.example.v2.service;
 
 import hello.springdb2.domain.Item;
 import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemLookup;
+import hello.springdb2.dto.ItemPage;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import hello.springdb2.example.v2.repository.ItemQueryRepositoryV2;
 import hello.springdb2.example.v2.repository.ItemRepositoryV2;
+import hello.springdb2.repository.support.ItemIdChunks;
+import hello.springdb2.repository.support.ItemVersions;
 import hello.springdb2.service.ItemService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -28,22 +36,61 @@ public class ItemServiceV2 implements ItemService {
         ));
     }
 
+    /**
+     * 조회 후 변경 감지 대신 update 한 번으로 수정한다. ( ItemRepositoryV2.updateItem )
+     */
     @Override
     public void update(
             Long itemId,
             ItemUpdateDto updateParam
     ) {
-        Item findItem = findById(itemId).orElseThrow();
-        findItem.update(updateParam);
+        int updatedRows = itemRepositoryV2.updateItem(
+                itemId, updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity(), updateParam.getVersion()
+        );
+        ItemVersions.checkUpdated(updatedRows, itemId, updateParam);
+        if (updatedRows == 0) {
+            throw new NoSuchElementException("item not found. id=" + itemId);
+        }
     }
 
+    /**
+     * 조회 메서드는 읽기 전용 트랜잭션 - 하이버네이트 세션이 flush 하지 않고( MANUAL ),
+     * 읽어온 엔티티를 읽기 전용으로 다뤄 변경 감지용 스냅샷을 만들지 않는다.
+     */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Item> findById(Long id) {
         return itemRepositoryV2.findById(id);
     }
 
+    /**
+     * 스프링 데이터 findAllById 를 ItemIdChunks 조각마다 - 조각 크기별로 IN 쿼리 모양이 고정된다.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public ItemLookup findItemsById(List<Long> ids) {
+        List<Item> found = new ArrayList<>(ids.size());
+        for (List<Long> chunk : ItemIdChunks.chunks(ids)) {
+            found.addAll(itemRepositoryV2.findAllById(chunk));
+        }
+        return ItemLookup.of(ids, found);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Item> findItems(ItemSearchCond cond) {
         return itemQueryRepositoryV2.findAll(cond);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemPage findItemPage(ItemSearchCond cond, ItemPageCond page) {
+        return ItemPage.of(itemQueryRepositoryV2.findPage(cond, page), page);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamItems(ItemSearchCond cond, Consumer<Item> action) {
+        itemQueryRepositoryV2.streamAll(cond, action);
+    }
 }
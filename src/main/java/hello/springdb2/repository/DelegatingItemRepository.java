@@ -0,0 +1,18 @@
+package hello.springdb2.repository;
+
+/**
+ * 다른 ItemRepository 하나를 감싸는 데코레이터 ( 캐시, 메트릭, 디스크 기록, 카탈로그 버전 )
+ * - 빈 후처리기가 감싼 구현체를 꺼내야 할 때 ( ex. 테스트 정리 ) unwrap 으로 모두 벗긴다.
+ */
+public interface DelegatingItemRepository extends ItemRepository {
+
+    ItemRepository getDelegate();
+
+    static ItemRepository unwrap(ItemRepository itemRepository) {
+        ItemRepository result = itemRepository;
+        while (result instanceof DelegatingItemRepository delegating) {
+            result = delegating.getDelegate();
+        }
+        return result;
+    }
+}
@@ -1,18 +1,43 @@
 package hello.springdb2.repository;
 
 import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ItemRepository {
     Item save(Item item);
 
+    /**
+     * 다건 저장 - 저장된 Item 들은 id 가 채워져 입력 순서대로 반환된다.
+     */
+    List<Item> saveAll(Collection<Item> items);
+
     void update(Long itemId, ItemUpdateDto updateParam);
 
     Optional<Item> findById(Long id);
 
+    /**
+     * 여러 id 한 번에 조회 - 없는 id 는 빠지고, 결과 순서는 정하지 않는다. ( 요청 순서는 ItemLookup )
+     */
+    List<Item> findAllById(Collection<Long> ids);
+
     List<Item> findAll(ItemSearchCond cond);
+
+    /**
+     * 키셋 페이지 조회 - 최대 page.getFetchSize() 건
+     * - 정방향: id > afterId, id 오름차순
+     * - 역방향: id < beforeId, id 내림차순
+     */
+    List<Item> findPage(ItemSearchCond cond, ItemPageCond page);
+
+    /**
+     * findAll 의 스트리밍 버전 - 결과를 List 로 모으지 않고 읽는 대로 action 에 넘긴다.
+     */
+    void streamAll(ItemSearchCond cond, Consumer<Item> action);
 }
@@ -0,0 +1,134 @@
+package hello.springdb2.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.DelegatingItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * findById 읽기 캐시 데코레이터 - 어떤 ItemRepository 든 감쌀 수 있다.
+ * - Caffeine( W-TinyLFU ): 최대 건수를 넘으면 사용 빈도와 최근성을 함께 보고 내보낸다.
+ * - 같은 id 에 대한 동시 미스는 한 번만 로딩한다.
+ * - save / saveAll / update 는 해당 id 를 무효화한다. ( 이 데코레이터를 거치지 않은 변경은 알 수 없다. )
+ * - 없는 id 는 캐시하지 않는다. 캐시된 Item 은 공유되므로 꺼낸 쪽에서 수정하면 안 된다.
+ */
+public class CachingItemRepository implements DelegatingItemRepository {
+    private final ItemRepository delegate;
+    private final Cache<Long, Item> cache;
+
+    public CachingItemRepository(
+            ItemRepository delegate,
+            long maximumSize
+    ) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public ItemRepository getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Item save(Item item) {
+        Item savedItem = delegate.save(item);
+        cache.invalidate(savedItem.getId());
+        return savedItem;
+    }
+
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        List<Item> savedItems = delegate.saveAll(items);
+        savedItems.forEach(item -> cache.invalidate(item.getId()));
+        return savedItems;
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        delegate.update(itemId, updateParam);
+        cache.invalidate(itemId);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return Optional.ofNullable(cache.get(id, key -> delegate.findById(key).orElse(null)));
+    }
+
+    /**
+     * 캐시에 없는 id 만 모아 delegate.findAllById 한 번으로 채운다. ( 없는 id 는 캐시하지 않는다. )
+     */
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        Set<Long> keys = new LinkedHashSet<>(ids);
+        keys.remove(null);
+        Map<Long, Item> found = cache.getAll(keys, missing -> delegate.findAllById(new ArrayList<>(missing)).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity())));
+        return new ArrayList<>(found.values());
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        return delegate.findAll(cond);
+    }
+
+    @Override
+    public List<Item> findPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        return delegate.findPage(cond, page);
+    }
+
+    @Override
+    public void streamAll(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        delegate.streamAll(cond, action);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 대기 중인 내보내기 등을 바로 처리한다. ( 테스트용 )
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * cache.gets{result=hit|miss}, cache.evictions, cache.size 등을 cacheName 으로 등록한다.
+     */
+    public void bindTo(
+            MeterRegistry registry,
+            String cacheName
+    ) {
+        CaffeineCacheMetrics.monitor(registry, cache, cacheName);
+    }
+}
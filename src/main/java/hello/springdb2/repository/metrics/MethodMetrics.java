@@ -0,0 +1,97 @@
+package hello.springdb2.repository.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 메서드 하나의 호출 시간, 오류, 결과 건수
+ * - {name}.calls: 호출 시간 타이머 ( 건수, p50 / p99 / p999 ), 태그 class, method, exception ( 성공은 none )
+ * - {name}.results: 결과 건수 분포, 태그 class, method
+ * <p>
+ * 성공 타이머와 결과 분포는 미리 만들어 두므로, 호출마다 레지스트리를 찾지 않는다. ( 오류 타이머만 그때 찾는다. )
+ */
+public class MethodMetrics {
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final Tags tags;
+    private final Timer timer;
+    private final DistributionSummary results;
+
+    public MethodMetrics(
+            MeterRegistry registry,
+            String name,
+            String implementation,
+            String method
+    ) {
+        this.registry = registry;
+        this.name = name;
+        this.tags = Tags.of("class", implementation, "method", method);
+        this.timer = timer("none");
+        this.results = DistributionSummary.builder(name + ".results")
+                .tags(tags)
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+    }
+
+    public <T> T record(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException | Error e) {
+            error(start, e);
+            throw e;
+        }
+    }
+
+    public void record(Runnable call) {
+        long start = System.nanoTime();
+        try {
+            call.run();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException | Error e) {
+            error(start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * record 와 같고, 반환된 컬렉션 크기를 결과 건수로 남긴다.
+     */
+    public <T extends Collection<?>> T recordResults(Supplier<T> call) {
+        T result = record(call);
+        results.record(result.size());
+        return result;
+    }
+
+    /**
+     * 스트리밍처럼 컬렉션이 없는 경우 직접 센 결과 건수
+     */
+    public void results(long count) {
+        results.record(count);
+    }
+
+    private void error(
+            long start,
+            Throwable e
+    ) {
+        timer(e.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String exception) {
+        return Timer.builder(name + ".calls")
+                .tags(tags)
+                .tag("exception", exception)
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+    }
+}
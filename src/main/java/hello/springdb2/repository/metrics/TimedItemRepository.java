@@ -0,0 +1,111 @@
+package hello.springdb2.repository.metrics;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.DelegatingItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * ItemRepository 메서드별 메트릭 데코레이터 ( MethodMetrics )
+ * - 메트릭 이름: item.repository.calls, item.repository.results
+ * - class 태그: 감싼 구현체 이름 ( ex. MemoryItemRepository, JpaItemRepositoryV3 )
+ */
+public class TimedItemRepository implements DelegatingItemRepository {
+    public static final String METRIC_NAME = "item.repository";
+
+    private final ItemRepository delegate;
+    private final MethodMetrics save;
+    private final MethodMetrics saveAll;
+    private final MethodMetrics update;
+    private final MethodMetrics findById;
+    private final MethodMetrics findAllById;
+    private final MethodMetrics findAll;
+    private final MethodMetrics findPage;
+    private final MethodMetrics streamAll;
+
+    public TimedItemRepository(
+            ItemRepository delegate,
+            String implementation,
+            MeterRegistry registry
+    ) {
+        this.delegate = delegate;
+        this.save = new MethodMetrics(registry, METRIC_NAME, implementation, "save");
+        this.saveAll = new MethodMetrics(registry, METRIC_NAME, implementation, "saveAll");
+        this.update = new MethodMetrics(registry, METRIC_NAME, implementation, "update");
+        this.findById = new MethodMetrics(registry, METRIC_NAME, implementation, "findById");
+        this.findAllById = new MethodMetrics(registry, METRIC_NAME, implementation, "findAllById");
+        this.findAll = new MethodMetrics(registry, METRIC_NAME, implementation, "findAll");
+        this.findPage = new MethodMetrics(registry, METRIC_NAME, implementation, "findPage");
+        this.streamAll = new MethodMetrics(registry, METRIC_NAME, implementation, "streamAll");
+    }
+
+    @Override
+    public ItemRepository getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Item save(Item item) {
+        return save.record(() -> delegate.save(item));
+    }
+
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        return saveAll.recordResults(() -> delegate.saveAll(items));
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        update.record(() -> delegate.update(itemId, updateParam));
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return findById.record(() -> delegate.findById(id));
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return findAllById.recordResults(() -> delegate.findAllById(ids));
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        return findAll.recordResults(() -> delegate.findAll(cond));
+    }
+
+    @Override
+    public List<Item> findPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        return findPage.recordResults(() -> delegate.findPage(cond, page));
+    }
+
+    /**
+     * 호출 시간에는 action 처리 시간도 포함된다.
+     */
+    @Override
+    public void streamAll(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        long[] count = {0};
+        streamAll.record(() -> delegate.streamAll(cond, item -> {
+            count[0]++;
+            action.accept(item);
+        }));
+        streamAll.results(count[0]);
+    }
+}
@@ -0,0 +1,100 @@
+package hello.springdb2.repository.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로컬 H2 두 개로 복제를 흉내 낸다. ( 실제 복제 DB 대신 )
+ * - 복제 DB 에 같은 마이그레이션( Flyway )을 적용하고, 주 DB 의 item 을 LINKED TABLE 로 연결한다.
+ * - interval 마다 주 DB 의 item 전체를 복제 DB 에 MERGE 하고, 주 DB 에 없는 행은 지운다.
+ * <p>
+ * 매번 전체를 복사하므로 개발, 테스트용 크기에서만 쓴다. 그 사이의 지연이 곧 복제 지연이다.
+ * 주 DB 의 테이블은 Flyway 가 만든 뒤에야 연결되므로, 연결될 때까지 매 주기 다시 시도한다.
+ */
+@Slf4j
+public class H2ReplicationStandIn implements Closeable {
+    private static final String LINK_TABLE = "primary_item";
+
+    private final DataSource replica;
+    private final String linkSql;
+    private final ScheduledExecutorService scheduler;
+    private boolean linked;
+
+    private H2ReplicationStandIn(
+            DataSource replica,
+            String linkSql
+    ) {
+        this.replica = replica;
+        this.linkSql = linkSql;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-replication");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static H2ReplicationStandIn start(
+            DataSource primary,
+            String primaryPassword,
+            DataSource replica,
+            Duration interval
+    ) throws SQLException {
+        Flyway.configure().dataSource(replica).load().migrate();
+
+        String url;
+        String username;
+        try (Connection con = primary.getConnection()) {
+            DatabaseMetaData metaData = con.getMetaData();
+            url = metaData.getURL();
+            username = metaData.getUserName();
+        }
+        String linkSql = "create linked table if not exists " + LINK_TABLE
+                + "('org.h2.Driver', " + literal(url) + ", " + literal(username) + ", " + literal(primaryPassword) + ", 'ITEM')";
+
+        H2ReplicationStandIn standIn = new H2ReplicationStandIn(replica, linkSql);
+        long millis = interval.toMillis();
+        standIn.scheduler.scheduleWithFixedDelay(standIn::replicate, millis, millis, TimeUnit.MILLISECONDS);
+        return standIn;
+    }
+
+    /**
+     * 복제 한 번 - 주 DB 의 item 을 복제 DB 에 맞춘다.
+     */
+    public synchronized void replicate() {
+        try (Connection con = replica.getConnection(); Statement stmt = con.createStatement()) {
+            if (!linked) {
+                stmt.execute(linkSql);
+                linked = true;
+            }
+            stmt.executeUpdate("merge into item (id, item_name, price, quantity, version) key (id)"
+                    + " select id, item_name, price, quantity, version from " + LINK_TABLE);
+            stmt.executeUpdate("delete from item where id not in (select id from " + LINK_TABLE + ")");
+        } catch (SQLException e) {
+            if (linked) {
+                log.warn("replication failed", e);
+            } else {
+                log.debug("primary item table not ready", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private static String literal(String value) {
+        return "'" + (value == null ? "" : value.replace("'", "''")) + "'";
+    }
+}
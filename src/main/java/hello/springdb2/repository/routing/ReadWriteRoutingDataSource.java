@@ -0,0 +1,115 @@
+package hello.springdb2.repository.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션은 복제 DB 로, 나머지는 주 DB 로 보낸다.
+ * - @Transactional(readOnly = true) 안의 조회만 복제 DB 로 간다. 복제 DB 가 여럿이면 돌아가며 고른다.
+ * - 트랜잭션 밖의 접근 ( Flyway, 자동 커밋 JdbcTemplate ) 은 읽기인지 알 수 없으므로 주 DB 로 간다.
+ * - 읽기/쓰기 트랜잭션이 끝나면 stickiness 동안 현재 ReadYourWrites 창의 읽기도 주 DB 로 보낸다. ( 복제 지연 )
+ * <p>
+ * 트랜잭션 시작 시점에는 아직 readOnly 가 노출되지 않으므로, LazyConnectionDataSourceProxy 로 감싸
+ * 첫 문장을 실행할 때 커넥션을 고르게 해야 한다.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private static final String PRIMARY = "primary";
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private final long stickinessMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(
+            DataSource primary,
+            List<? extends DataSource> replicas,
+            Duration stickiness
+    ) {
+        this.stickinessMillis = stickiness.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        dataSources.add(primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            targets.put(key, replicas.get(i));
+            replicaKeys.add(key);
+            dataSources.add(replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * 닫을 때 함께 정리할 자원 ( 복제 대역 등 ). 데이터 소스보다 먼저 닫는다.
+     */
+    public void addResource(AutoCloseable resource) {
+        resources.add(resource);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+
+        ReadYourWrites window = ReadYourWrites.current();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            stickAfterCompletion(window);
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || window.isPrimaryRequired(System.currentTimeMillis())) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /**
+     * 창은 커밋한 시각부터 센다. 긴 트랜잭션 동안 창이 지나가 버리지 않도록 시작할 때도 한 번 건다.
+     */
+    private void stickAfterCompletion(ReadYourWrites window) {
+        window.stickUntil(System.currentTimeMillis() + stickinessMillis);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    window.stickUntil(System.currentTimeMillis() + stickinessMillis);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        for (AutoCloseable closeable : resources) {
+            closeQuietly(closeable);
+        }
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeQuietly(closeable);
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.warn("failed to close {}", closeable, e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package hello.springdb2.repository.routing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 쓰기 직후 한동안 읽기도 주 DB 로 보내는 창 ( read-your-writes )
+ * - 웹 요청은 ReadYourWritesInterceptor 가 쿠키 값으로 만들어 bind 한다. ( 클라이언트별 )
+ * - 요청에 묶이지 않은 스레드는 하나의 공용 창을 함께 쓴다.
+ * - 비동기 실행 스레드로 넘길 때는 propagate 로 감싼다. ( ThreadPoolTaskExecutor 의 TaskDecorator )
+ */
+public class ReadYourWrites {
+    private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+    private static final ReadYourWrites SHARED = new ReadYourWrites(0);
+
+    /**
+     * 이 시각( epoch ms )까지는 주 DB 에서 읽는다.
+     */
+    private final AtomicLong primaryUntil;
+
+    public ReadYourWrites(long primaryUntil) {
+        this.primaryUntil = new AtomicLong(primaryUntil);
+    }
+
+    public static ReadYourWrites current() {
+        ReadYourWrites window = CURRENT.get();
+        return window != null ? window : SHARED;
+    }
+
+    public static void bind(ReadYourWrites window) {
+        CURRENT.set(window);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 호출한 스레드의 창을 task 를 실행하는 스레드에도 걸어 둔다.
+     */
+    public static Runnable propagate(Runnable task) {
+        ReadYourWrites window = CURRENT.get();
+        if (window == null) {
+            return task;
+        }
+        return () -> {
+            ReadYourWrites previous = CURRENT.get();
+            CURRENT.set(window);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public void stickUntil(long epochMillis) {
+        primaryUntil.accumulateAndGet(epochMillis, Math::max);
+    }
+
+    public boolean isPrimaryRequired(long nowMillis) {
+        return nowMillis < primaryUntil.get();
+    }
+
+    public long getPrimaryUntil() {
+        return primaryUntil.get();
+    }
+}
@@ -0,0 +1,60 @@
+package hello.springdb2.repository.routing;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+
+/**
+ * 읽기 전용 트랜잭션은 2차 캐시를 읽기만 하고 채우지 않는다. ( CacheMode.GET )
+ * - 복제 DB 에서 읽은 행은 복제 지연만큼 오래됐을 수 있다. 2차 캐시에 넣으면 주 DB 읽기와 공유되어
+ * stickiness 창이 끝난 뒤에도 캐시가 만료될 때까지 오래된 값이 보인다.
+ * - 커넥션은 첫 문장에서 고르므로 ( LazyConnectionDataSourceProxy ) 시작 시점에는 복제 DB 로 갈지 알 수 없다.
+ * 그래서 복제 DB 로 갈 수 있는 읽기 전용 트랜잭션은 모두 GET 으로 둔다.
+ * - 트랜잭션이 끝나면 이전 CacheMode 로 되돌린다.
+ */
+public class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(
+            EntityManager entityManager,
+            TransactionDefinition definition
+    ) throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new ReplicaReadTransactionData(transactionData, session, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(
+            @Nullable Object transactionData
+    ) {
+        if (transactionData instanceof ReplicaReadTransactionData data) {
+            if (data.session().isOpen()) {
+                data.session().setCacheMode(data.previousCacheMode());
+            }
+            super.cleanupTransaction(data.delegate());
+            return;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+
+    private record ReplicaReadTransactionData(
+            Object delegate,
+            Session session,
+            CacheMode previousCacheMode
+    ) {
+    }
+}
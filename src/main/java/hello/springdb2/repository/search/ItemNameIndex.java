@@ -0,0 +1,170 @@
+package hello.springdb2.repository.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * itemName 부분 일치( contains ) 검색용 트라이그램 역색인
+ * - 이름을 3글자 조각으로 나누고, 조각마다 정렬된 id 목록( posting )을 유지한다.
+ * - 검색어의 조각별 posting 을 작은 것부터 교집합해 후보를 만들고, 실제 이름으로 한 번 더 확인한다.
+ * - 3글자보다 짧은 검색어는 지원하지 않는다. ( supports 로 확인 후 호출자가 기존 방식으로 처리 )
+ */
+public class ItemNameIndex {
+    public static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    public boolean supports(String fragment) {
+        return fragment != null && fragment.length() >= GRAM;
+    }
+
+    /**
+     * id 의 이름을 등록하거나 바꾼다. itemName 이 null 이면 색인에서 뺀다.
+     */
+    public void put(long id, String itemName) {
+        lock.writeLock().lock();
+        try {
+            String oldName = itemName == null ? names.remove(id) : names.put(id, itemName);
+            if (oldName != null) {
+                for (long gram : grams(oldName)) {
+                    Postings list = postings.get(gram);
+                    list.remove(id);
+                    if (list.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            if (itemName != null) {
+                for (long gram : grams(itemName)) {
+                    postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 이름에 fragment 가 포함된 id 목록 ( id 오름차순 )
+     */
+    public long[] search(String fragment) {
+        if (!supports(fragment)) {
+            throw new IllegalArgumentException("검색어는 " + GRAM + "글자 이상이어야 합니다: " + fragment);
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] grams = grams(fragment);
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return new long[0];
+                }
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            // 가장 짧은 posting 에서 시작해 나머지에 모두 있는 id 만 남긴다.
+            long[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = retainAll(candidates, count, lists[i]);
+            }
+
+            // 조각이 모두 있어도 연속으로 이어지지 않을 수 있으므로 실제 이름으로 확인
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                if (names.get(candidates[i]).contains(fragment)) {
+                    candidates[matched++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int retainAll(long[] candidates, int count, Postings list) {
+        int retained = 0;
+        for (int i = 0; i < count; i++) {
+            if (list.contains(candidates[i])) {
+                candidates[retained++] = candidates[i];
+            }
+        }
+        return retained;
+    }
+
+    /**
+     * 중복을 제거한 3글자 조각 ( 문자 3개를 long 하나로 묶는다 )
+     */
+    private static long[] grams(String text) {
+        int length = text.length() - GRAM + 1;
+        if (length <= 0) {
+            return new long[0];
+        }
+
+        long[] grams = new long[length];
+        for (int i = 0; i < length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32)
+                    | ((long) text.charAt(i + 1) << 16)
+                    | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * 정렬된 id 목록 - id 는 대부분 증가하는 순서로 들어오므로 뒤에 붙이는 경우가 가장 빠르다.
+     */
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    return;
+                }
+                insert(-(pos + 1), id);
+                return;
+            }
+            insert(size, id);
+        }
+
+        void remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+                size--;
+            }
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void insert(int pos, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package hello.springdb2.repository.search;
+
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.repository.ItemRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 기동할 때 한 번 채우고, 이후에는 데코레이터를 거친 쓰기로 갱신하는 ItemNameIndex
+ * - 채우기 전( isLoaded == false )에는 검색이 원래 방식으로 간다. ( 검색 중에 채우지 않는다. )
+ * - 쓰기는 커밋된 뒤에 반영한다. ( 롤백된 이름이 색인에 남지 않게 )
+ * - 채우는 동안 커밋된 쓰기가 있으면, 채우기가 먼저 읽어 온 예전 이름으로 덮어쓰지 않는다.
+ */
+public class LiveItemNameIndex {
+    private static final ItemSearchCond ALL = new ItemSearchCond(null, null);
+
+    private final ItemNameIndex index = new ItemNameIndex();
+    private final Set<Long> writtenWhileLoading = new HashSet<>();
+    private boolean loading;
+    private volatile boolean loaded;
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean supports(String fragment) {
+        return index.supports(fragment);
+    }
+
+    public long[] search(String fragment) {
+        return index.search(fragment);
+    }
+
+    /**
+     * 저장소 전체를 읽어 색인을 채운다. ( 데코레이터 안쪽 저장소를 넘긴다. )
+     */
+    public void load(ItemRepository itemRepository) {
+        synchronized (this) {
+            loading = true;
+            writtenWhileLoading.clear();
+        }
+        try {
+            itemRepository.streamAll(ALL, item -> {
+                synchronized (this) {
+                    if (!writtenWhileLoading.contains(item.getId())) {
+                        index.put(item.getId(), item.getItemName());
+                    }
+                }
+            });
+            loaded = true;
+        } finally {
+            synchronized (this) {
+                loading = false;
+                writtenWhileLoading.clear();
+            }
+        }
+    }
+
+    /**
+     * 쓰기가 커밋된 뒤에 이름을 반영한다. ( 트랜잭션 밖이면 바로 )
+     */
+    public void afterWrite(
+            long id,
+            String itemName
+    ) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(id, itemName);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(id, itemName);
+            }
+        });
+    }
+
+    private synchronized void apply(
+            long id,
+            String itemName
+    ) {
+        if (loading) {
+            writtenWhileLoading.add(id);
+        }
+        index.put(id, itemName);
+    }
+}
@@ -0,0 +1,134 @@
+package hello.springdb2.repository.search;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.DelegatingItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 어떤 ItemRepository 든 감싸서 itemName 검색을 LiveItemNameIndex 로 가속하는 데코레이터
+ * - 색인은 기동할 때 한 번 채우고( ItemNameIndexConfig ), 이 데코레이터를 통한 save / update 가 커밋되면 갱신한다.
+ * - 색인이 채워지기 전에는 원래 검색으로 넘긴다.
+ * - 후보는 findAllById 한 번으로 읽고 실제 조건으로 다시 거른다. ( 인덱스는 후보만 좁힌다. )
+ * - 후보가 없으면 DB 를 전혀 호출하지 않고, 후보가 maxCandidates 보다 많으면 원래 검색으로 넘긴다.
+ */
+public class NameIndexedItemRepository implements DelegatingItemRepository {
+    private static final int DEFAULT_MAX_CANDIDATES = 64;
+
+    private final ItemRepository delegate;
+    private final LiveItemNameIndex index;
+    private final int maxCandidates;
+
+    public NameIndexedItemRepository(
+            ItemRepository delegate,
+            LiveItemNameIndex index
+    ) {
+        this(delegate, index, DEFAULT_MAX_CANDIDATES);
+    }
+
+    public NameIndexedItemRepository(
+            ItemRepository delegate,
+            LiveItemNameIndex index,
+            int maxCandidates
+    ) {
+        this.delegate = delegate;
+        this.index = index;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @Override
+    public ItemRepository getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 안쪽 저장소 전체로 색인을 채운다.
+     */
+    public void loadIndex() {
+        index.load(delegate);
+    }
+
+    @Override
+    public Item save(Item item) {
+        Item savedItem = delegate.save(item);
+        index.afterWrite(savedItem.getId(), savedItem.getItemName());
+        return savedItem;
+    }
+
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        List<Item> savedItems = delegate.saveAll(items);
+        savedItems.forEach(item -> index.afterWrite(item.getId(), item.getItemName()));
+        return savedItems;
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        delegate.update(itemId, updateParam);
+        index.afterWrite(itemId, updateParam.getItemName());
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        String itemName = cond.getItemName();
+        if (!index.isLoaded() || !StringUtils.hasText(itemName) || !index.supports(itemName)) {
+            return delegate.findAll(cond);
+        }
+
+        long[] ids = index.search(itemName);
+        if (ids.length == 0) {
+            return List.of();
+        }
+        if (ids.length > maxCandidates) {
+            return delegate.findAll(cond);
+        }
+
+        // 후보를 한 번에 읽어 id 순서로 맞춘 뒤 실제 조건으로 거른다.
+        Integer maxPrice = cond.getMaxPrice();
+        return delegate.findAllById(Arrays.stream(ids).boxed().toList()).stream()
+                .filter(item -> item.getItemName() != null && item.getItemName().contains(itemName))
+                .filter(item -> maxPrice == null || (item.getPrice() != null && item.getPrice() <= maxPrice))
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Item> findPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        return delegate.findPage(cond, page);
+    }
+
+    @Override
+    public void streamAll(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        delegate.streamAll(cond, action);
+    }
+}
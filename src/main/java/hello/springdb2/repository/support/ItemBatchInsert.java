@@ -0,0 +1,74 @@
+package hello.springdb2.repository.support;
+
+import hello.springdb2.domain.Item;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * item 다건 저장 - JDBC 배치로 batchSize 건씩 나눠 실행하고, 생성된 id 를 각 Item 에 채운다.
+ * - JdbcTemplate 은 ConnectionCallback, JPA 는 Session.doWork 로 같은 커넥션에서 실행한다.
+ */
+public abstract class ItemBatchInsert {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final String SQL = "insert into item(item_name, price, quantity) values(?, ?, ?)";
+
+    public static void insert(
+            Connection con,
+            Collection<Item> items,
+            int batchSize
+    ) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(SQL, new String[]{"id"})) {
+            List<Item> chunk = new ArrayList<>(Math.min(batchSize, items.size()));
+            for (Item item : items) {
+                ps.setString(1, item.getItemName());
+                ps.setObject(2, item.getPrice(), Types.INTEGER);
+                ps.setObject(3, item.getQuantity(), Types.INTEGER);
+                ps.addBatch();
+
+                chunk.add(item);
+                if (chunk.size() == batchSize) {
+                    executeChunk(ps, chunk);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                executeChunk(ps, chunk);
+            }
+        }
+    }
+
+    /**
+     * 초당 처리 건수 ( 로그용 )
+     */
+    public static long rowsPerSecond(
+            int rows,
+            long startNanos
+    ) {
+        long elapsed = Math.max(1, System.nanoTime() - startNanos);
+        return rows * 1_000_000_000L / elapsed;
+    }
+
+    private static void executeChunk(
+            PreparedStatement ps,
+            List<Item> chunk
+    ) throws SQLException {
+        ps.executeBatch();
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            for (Item item : chunk) {
+                if (!keys.next()) {
+                    throw new SQLException("생성된 키 개수가 배치 건수와 다릅니다: " + chunk.size());
+                }
+                item.setId(keys.getLong(1));
+                item.setVersion(ItemVersions.INITIAL);
+            }
+        }
+        chunk.clear();
+    }
+}
@@ -0,0 +1,35 @@
+package hello.springdb2.repository.support;
+
+import hello.springdb2.domain.Item;
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * 하이버네이트 2차 캐시 영역 이름 ( JpaCacheConfig 에서 크기와 TTL 을 정한다. )
+ * - ITEM: Item 엔티티 캐시
+ * - ITEM_SEARCH: ItemQueryRepositoryV2, SpringDataJpaItemRepository 검색 쿼리 캐시
+ * <p>
+ * 벌크 update ( JPQL, QueryDSL, @Modifying ) 는 하이버네이트가 알아서 영역을 비운다.
+ * Session.doWork 로 하이버네이트를 거치지 않고 쓴 경우에만 afterJdbcWrite 로 알려줘야 한다.
+ */
+public abstract class ItemCacheRegions {
+
+    public static final String ITEM = "item";
+    public static final String ITEM_SEARCH = "item-search";
+
+    /**
+     * 네이티브 update 와 같은 뒷정리를 예약한다.
+     * - 커밋 전까지 item 테이블의 쿼리 캐시를 무효로 두고, 트랜잭션이 끝나면 Item 엔티티 영역을 비운다.
+     * - 캐시를 끄면 아무 일도 하지 않는다.
+     */
+    public static void afterJdbcWrite(EntityManager em) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory()
+                .getRuntimeMetamodels()
+                .getMappingMetamodel()
+                .getEntityDescriptor(Item.class);
+        session.getActionQueue().addAction(new BulkOperationCleanupAction(session, persister));
+    }
+}
@@ -0,0 +1,30 @@
+package hello.springdb2.repository.support;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemUpdateDto;
+import jakarta.persistence.EntityManager;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 조회 없이 update 한 번으로 수정하는 JPA 경로의 뒷정리
+ * - 벌크 update 는 영속성 컨텍스트를 거치지 않으므로, 같은 id 의 엔티티가 남아 있으면 내보낸다.
+ * getReference 는 관리 중인 엔티티가 있으면 그것을, 없으면 DB 조회 없이 프록시를 돌려준다.
+ * - 맞는 행이 없으면 예전 findById(...).orElseThrow() 처럼 NoSuchElementException 을 던진다.
+ * 버전을 주었으면 그 사이 수정된 것이므로 OptimisticLockingFailureException ( ItemVersions )
+ */
+public abstract class ItemDirectUpdate {
+
+    public static void afterUpdate(
+            EntityManager em,
+            Long itemId,
+            ItemUpdateDto updateParam,
+            long updatedRows
+    ) {
+        em.detach(em.getReference(Item.class, itemId));
+        ItemVersions.checkUpdated(updatedRows, itemId, updateParam);
+        if (updatedRows == 0) {
+            throw new NoSuchElementException("item not found. id=" + itemId);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package hello.springdb2.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * item.item_name H2 네이티브 전문 검색 인덱스 ( sql/fulltext.sql 과 같은 작업 )
+ * - FT_CREATE_INDEX 가 item 테이블에 트리거를 걸어 insert / update / delete 때 인덱스를 갱신한다.
+ * - 인덱스( FT.INDEXES )와 트리거가 이미 있으면 그대로 둔다. ( 만들 때 기존 행을 모두 색인하므로 기동마다 다시 만들지 않는다. )
+ * - schema.sql 로 테이블을 다시 만들어 트리거만 사라진 경우에는 인덱스를 지우고 다시 만든다.
+ */
+@Slf4j
+public class ItemFullTextIndex {
+    private final JdbcTemplate template;
+
+    public ItemFullTextIndex(DataSource dataSource) {
+        this.template = new JdbcTemplate(dataSource);
+    }
+
+    public void migrate() {
+        template.execute("create alias if not exists FT_INIT for 'org.h2.fulltext.FullText.init'");
+        template.execute("call FT_INIT()");
+
+        boolean indexed = exists("select count(*) from FT.INDEXES where \"SCHEMA\" = 'PUBLIC' and \"TABLE\" = 'ITEM'");
+        boolean triggered = exists("select count(*) from INFORMATION_SCHEMA.TRIGGERS where TRIGGER_SCHEMA = 'PUBLIC' and TRIGGER_NAME = 'FT_ITEM'");
+        if (indexed && triggered) {
+            log.info("item.item_name full-text index already exists");
+            return;
+        }
+        if (indexed) {
+            template.execute("call FT_DROP_INDEX('PUBLIC', 'ITEM')");
+        }
+        template.execute("call FT_CREATE_INDEX('PUBLIC', 'ITEM', 'ITEM_NAME')");
+
+        log.info("item.item_name full-text index created");
+    }
+
+    private boolean exists(String countSql) {
+        Integer count = template.queryForObject(countSql, Integer.class);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,66 @@
+package hello.springdb2.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * findAllById 의 id 목록을 IN (...) 조회 단위로 나눈다.
+ * - 중복, null 은 빼고 MAX_CHUNK_SIZE 건씩 나눈다.
+ * - 조각 크기를 2의 거듭제곱으로 올리고 남는 자리는 마지막 id 로 채운다. ( IN 에 같은 값이 있어도 결과는 같다. )
+ * <p>
+ * 그래서 SQL 모양이 1, 2, 4, ..., 256 개로 고정되어, 준비된 문장 캐시와 실행 계획을 매번 다시 쓸 수 있다.
+ */
+public abstract class ItemIdChunks {
+    public static final int MAX_CHUNK_SIZE = 256;
+
+    private static final String[] PLACEHOLDERS = new String[MAX_CHUNK_SIZE + 1];
+
+    static {
+        for (int size = 1; size <= MAX_CHUNK_SIZE; size <<= 1) {
+            PLACEHOLDERS[size] = String.join(", ", Collections.nCopies(size, "?"));
+        }
+    }
+
+    public static List<List<Long>> chunks(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(Math.min(distinct.size(), MAX_CHUNK_SIZE));
+        for (Long id : distinct) {
+            chunk.add(id);
+            if (chunk.size() == MAX_CHUNK_SIZE) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(MAX_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(pad(chunk));
+        }
+        return chunks;
+    }
+
+    /**
+     * 조각 크기에 맞는 "?, ?, ..." ( 위치 기반 파라미터용 )
+     */
+    public static String placeholders(int chunkSize) {
+        return Objects.requireNonNull(PLACEHOLDERS[chunkSize], "not a chunk size: " + chunkSize);
+    }
+
+    private static List<Long> pad(List<Long> chunk) {
+        int size = Integer.highestOneBit(chunk.size());
+        if (size < chunk.size()) {
+            size <<= 1;
+        }
+        Long last = chunk.get(chunk.size() - 1);
+        while (chunk.size() < size) {
+            chunk.add(last);
+        }
+        return chunk;
+    }
+}
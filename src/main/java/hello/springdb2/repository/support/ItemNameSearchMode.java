@@ -0,0 +1,10 @@
+package hello.springdb2.repository.support;
+
+/**
+ * itemName 검색 방식 - item.name-search 로 고른다. ( JdbcTemplate, MyBatis, QueryDSL )
+ * - LIKE: item_name like '%x%' - 부분 문자열, 대소문자 구분, 테이블 전체를 읽는다.
+ * - FULL_TEXT: H2 네이티브 전문 검색 인덱스( ItemFullTextIndex ) - 단어 단위, 대소문자 무시.
+ */
+public enum ItemNameSearchMode {
+    LIKE, FULL_TEXT
+}
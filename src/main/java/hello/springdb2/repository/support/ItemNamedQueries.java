@@ -0,0 +1,29 @@
+package hello.springdb2.repository.support;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemSearchCond;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Item 엔티티의 검색 @NamedQuery - 하이버네이트가 기동할 때 한 번 파싱해 두므로
+ * 호출마다 QueryDSL 트리를 만들고 JPQL 로 렌더링하는 비용이 없다.
+ */
+public abstract class ItemNamedQueries {
+
+    public static TypedQuery<Item> search(
+            EntityManager em,
+            ItemSearchCond cond
+    ) {
+        ItemSearchShape shape = ItemSearchShape.of(cond);
+
+        TypedQuery<Item> query = em.createNamedQuery(shape.getQueryName(), Item.class);
+        if (shape.hasItemName()) {
+            query.setParameter("itemName", cond.getItemName());
+        }
+        if (shape.hasMaxPrice()) {
+            query.setParameter("maxPrice", cond.getMaxPrice());
+        }
+        return query;
+    }
+}
@@ -0,0 +1,169 @@
+package hello.springdb2.repository.support;
+
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 검색 쿼리 실행 계획 검사 - 모든 검색 모양에 EXPLAIN 을 실행해 인덱스를 타지 않으면 실패한다.
+ * - JdbcTemplate: ItemSearchSql 의 findAll / 첫 페이지 / 다음 페이지 / 이전 페이지
+ * - MyBatis: ItemMapper.xml 의 같은 문장 ( SqlSessionFactory 에 등록되어 있을 때 )
+ * <p>
+ * 인덱스로 좁힐 조건이 있는 쿼리만 검사한다. ( maxPrice, 키셋 id, 전문 검색 조인 )
+ * 조건이 없는 전체 조회와 like '%x%' 만 있는 조회는 원래 전체를 읽으므로 제외한다.
+ */
+@Slf4j
+public class ItemQueryPlanVerifier {
+    private static final String TABLE_SCAN = ".tableScan";
+    private static final String MAPPER = "hello.springdb2.example.mybatis.repository.ItemMapper.";
+
+    private static final List<ItemPageCond> PAGES = List.of(
+            ItemPageCond.first(),
+            new ItemPageCond(1L, null, null),
+            new ItemPageCond(null, 100L, null)
+    );
+
+    private final NamedParameterJdbcTemplate template;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final ItemNameSearchMode nameSearch;
+
+    /**
+     * @param sqlSessionFactory 없으면 null - MyBatis 문장은 검사하지 않는다.
+     */
+    public ItemQueryPlanVerifier(
+            DataSource dataSource,
+            SqlSessionFactory sqlSessionFactory,
+            ItemNameSearchMode nameSearch
+    ) {
+        this.template = new NamedParameterJdbcTemplate(dataSource);
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.nameSearch = nameSearch;
+    }
+
+    public void verify() {
+        List<String> violations = findViolations();
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("인덱스를 사용하지 않는 검색 쿼리가 있습니다.\n" + String.join("\n", violations));
+        }
+        log.info("item search query plans verified, nameSearch={}", nameSearch);
+    }
+
+    /**
+     * @return 인덱스를 타야 하는데 전체를 읽는 쿼리와 그 실행 계획
+     */
+    public List<String> findViolations() {
+        List<String> violations = new ArrayList<>();
+        ItemSearchSql searchSql = ItemSearchSql.named(nameSearch);
+
+        for (ItemSearchShape shape : ItemSearchShape.values()) {
+            ItemSearchCond cond = sampleCond(shape);
+
+            check(violations, needsIndex(shape, null), searchSql.findAll(shape), cond, null);
+            checkMyBatis(violations, needsIndex(shape, null), isFullText(shape) ? "findAllFullText" : "findAll", cond);
+
+            for (ItemPageCond page : PAGES) {
+                check(violations, needsIndex(shape, page), searchSql.findPage(shape, page), cond, page);
+                checkMyBatis(violations, needsIndex(shape, page), isFullText(shape) ? "findPageFullText" : "findPage",
+                        Map.of("cond", cond, "page", page));
+            }
+        }
+        return violations;
+    }
+
+    private boolean needsIndex(
+            ItemSearchShape shape,
+            ItemPageCond page
+    ) {
+        boolean keyset = page != null && (page.isBackward() || page.getAfterId() != null);
+        return shape.hasMaxPrice() || keyset || isFullText(shape);
+    }
+
+    private boolean isFullText(ItemSearchShape shape) {
+        return nameSearch == ItemNameSearchMode.FULL_TEXT && shape.hasItemName();
+    }
+
+    private void check(
+            List<String> violations,
+            boolean needsIndex,
+            String sql,
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        MapSqlParameterSource param = new MapSqlParameterSource()
+                .addValue("itemName", cond.getItemName())
+                .addValue("maxPrice", cond.getMaxPrice());
+        if (page != null) {
+            param.addValue("afterId", page.getAfterId())
+                    .addValue("beforeId", page.getBeforeId())
+                    .addValue("fetchSize", page.getFetchSize());
+        }
+
+        String plan = template.queryForObject("explain " + sql, param, String.class);
+        addIfTableScan(violations, needsIndex, sql, plan);
+    }
+
+    private void checkMyBatis(
+            List<String> violations,
+            boolean needsIndex,
+            String statement,
+            Object parameter
+    ) {
+        if (sqlSessionFactory == null) {
+            return;
+        }
+        Configuration configuration = sqlSessionFactory.getConfiguration();
+        if (!configuration.hasStatement(MAPPER + statement)) {
+            return;
+        }
+
+        MappedStatement mappedStatement = configuration.getMappedStatement(MAPPER + statement);
+        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+        ParameterHandler parameterHandler = new DefaultParameterHandler(mappedStatement, parameter, boundSql);
+
+        String plan = template.getJdbcTemplate().execute((ConnectionCallback<String>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("explain " + boundSql.getSql())) {
+                parameterHandler.setParameters(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+        addIfTableScan(violations, needsIndex, "mybatis " + statement + ": " + boundSql.getSql(), plan);
+    }
+
+    private void addIfTableScan(
+            List<String> violations,
+            boolean needsIndex,
+            String sql,
+            String plan
+    ) {
+        log.debug("plan sql = {}, plan = {}", sql, plan);
+        if (needsIndex && plan != null && plan.contains(TABLE_SCAN)) {
+            violations.add(sql.replaceAll("\\s+", " ").trim() + "\n  -> " + plan.replaceAll("\\s+", " "));
+        }
+    }
+
+    private static ItemSearchCond sampleCond(ItemSearchShape shape) {
+        return new ItemSearchCond(
+                shape.hasItemName() ? "item" : null,
+                shape.hasMaxPrice() ? 10000 : null
+        );
+    }
+}
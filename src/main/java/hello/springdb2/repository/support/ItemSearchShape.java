@@ -0,0 +1,54 @@
+package hello.springdb2.repository.support;
+
+import hello.springdb2.dto.ItemSearchCond;
+import org.springframework.util.StringUtils;
+
+/**
+ * 검색 조건의 모양 - itemName, maxPrice 유무에 따라 네 가지뿐이다.
+ * 모양마다 쿼리를 한 번만 만들어 두고, 호출할 때는 파라미터만 바인딩한다.
+ */
+public enum ItemSearchShape {
+    NONE(false, false, "Item.searchAll"),
+    NAME(true, false, "Item.searchByItemName"),
+    PRICE(false, true, "Item.searchByMaxPrice"),
+    BOTH(true, true, "Item.searchByItemNameAndMaxPrice");
+
+    private final boolean itemName;
+    private final boolean maxPrice;
+    private final String queryName;
+
+    ItemSearchShape(
+            boolean itemName,
+            boolean maxPrice,
+            String queryName
+    ) {
+        this.itemName = itemName;
+        this.maxPrice = maxPrice;
+        this.queryName = queryName;
+    }
+
+    public static ItemSearchShape of(ItemSearchCond cond) {
+        boolean hasItemName = StringUtils.hasText(cond.getItemName());
+        boolean hasMaxPrice = cond.getMaxPrice() != null;
+
+        if (hasItemName) {
+            return hasMaxPrice ? BOTH : NAME;
+        }
+        return hasMaxPrice ? PRICE : NONE;
+    }
+
+    public boolean hasItemName() {
+        return itemName;
+    }
+
+    public boolean hasMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * Item 엔티티의 @NamedQuery 이름
+     */
+    public String getQueryName() {
+        return queryName;
+    }
+}
@@ -0,0 +1,156 @@
+package hello.springdb2.repository.support;
+
+import hello.springdb2.dto.ItemPageCond;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 검색 / 키셋 페이지 쿼리 문자열을 모양별로 미리 만들어 둔다.
+ * - findAll: 4가지 ( ItemSearchShape )
+ * - findPage: 4가지 x 첫 페이지 / 다음 페이지 / 이전 페이지
+ * 파라미터는 항상 itemName, maxPrice, afterId | beforeId, fetchSize 순서로 바인딩한다.
+ * <p>
+ * FULL_TEXT: itemName 이 있는 모양은 FT_SEARCH_DATA 결과를 item 과 조인하고, 나머지 조건은 그대로 붙인다.
+ */
+public class ItemSearchSql {
+    /**
+     * JdbcTemplate - ? 파라미터
+     */
+    public static final ItemSearchSql POSITIONAL = new ItemSearchSql(
+            "select id, item_name, price, quantity, version from item",
+            "select id, item_name, price, quantity, version from item",
+            "item_name like concat('%', ?, '%')",
+            "price <= ?",
+            "id > ?",
+            "id < ?",
+            "id",
+            " limit ?"
+    );
+
+    /**
+     * NamedParameterJdbcTemplate - 이름 파라미터
+     */
+    public static final ItemSearchSql NAMED = new ItemSearchSql(
+            "select id, item_name, price, quantity, version from item",
+            "select id, item_name, price, quantity, version from item",
+            "item_name like concat('%', :itemName, '%')",
+            "price <= :maxPrice",
+            "id > :afterId",
+            "id < :beforeId",
+            "id",
+            " limit :fetchSize"
+    );
+
+    /**
+     * JPQL - 건수 제한은 setMaxResults 로 한다.
+     */
+    public static final ItemSearchSql JPQL = new ItemSearchSql(
+            "select i from Item i",
+            "select i from Item i",
+            "i.itemName like concat('%', :itemName, '%')",
+            "i.price <= :maxPrice",
+            "i.id > :afterId",
+            "i.id < :beforeId",
+            "i.id",
+            ""
+    );
+
+    /**
+     * JdbcTemplate - ? 파라미터, H2 전문 검색
+     */
+    public static final ItemSearchSql POSITIONAL_FULL_TEXT = new ItemSearchSql(
+            "select id, item_name, price, quantity, version from item",
+            "select id, item_name, price, quantity, version from FT_SEARCH_DATA(?, 0, 0) ft join item on id = cast(ft.\"KEYS\"[1] as bigint)",
+            "ft.\"TABLE\" = 'ITEM'",
+            "price <= ?",
+            "id > ?",
+            "id < ?",
+            "id",
+            " limit ?"
+    );
+
+    /**
+     * NamedParameterJdbcTemplate, 네이티브 쿼리 - 이름 파라미터, H2 전문 검색
+     */
+    public static final ItemSearchSql NAMED_FULL_TEXT = new ItemSearchSql(
+            "select id, item_name, price, quantity, version from item",
+            "select id, item_name, price, quantity, version from FT_SEARCH_DATA(:itemName, 0, 0) ft join item on id = cast(ft.\"KEYS\"[1] as bigint)",
+            "ft.\"TABLE\" = 'ITEM'",
+            "price <= :maxPrice",
+            "id > :afterId",
+            "id < :beforeId",
+            "id",
+            " limit :fetchSize"
+    );
+
+    private final Map<ItemSearchShape, String> findAll = new EnumMap<>(ItemSearchShape.class);
+    private final Map<ItemSearchShape, String> findFirstPage = new EnumMap<>(ItemSearchShape.class);
+    private final Map<ItemSearchShape, String> findNextPage = new EnumMap<>(ItemSearchShape.class);
+    private final Map<ItemSearchShape, String> findPreviousPage = new EnumMap<>(ItemSearchShape.class);
+
+    private ItemSearchSql(
+            String select,
+            String itemNameSelect,
+            String itemNameClause,
+            String maxPriceClause,
+            String afterIdClause,
+            String beforeIdClause,
+            String id,
+            String limit
+    ) {
+        for (ItemSearchShape shape : ItemSearchShape.values()) {
+            String from = shape.hasItemName() ? itemNameSelect : select;
+            List<String> where = new ArrayList<>();
+            if (shape.hasItemName()) {
+                where.add(itemNameClause);
+            }
+            if (shape.hasMaxPrice()) {
+                where.add(maxPriceClause);
+            }
+
+            findAll.put(shape, from + where(where, null));
+            findFirstPage.put(shape, from + where(where, null) + " order by " + id + " asc" + limit);
+            findNextPage.put(shape, from + where(where, afterIdClause) + " order by " + id + " asc" + limit);
+            findPreviousPage.put(shape, from + where(where, beforeIdClause) + " order by " + id + " desc" + limit);
+        }
+    }
+
+    public static ItemSearchSql positional(ItemNameSearchMode nameSearch) {
+        return nameSearch == ItemNameSearchMode.FULL_TEXT ? POSITIONAL_FULL_TEXT : POSITIONAL;
+    }
+
+    public static ItemSearchSql named(ItemNameSearchMode nameSearch) {
+        return nameSearch == ItemNameSearchMode.FULL_TEXT ? NAMED_FULL_TEXT : NAMED;
+    }
+
+    public String findAll(ItemSearchShape shape) {
+        return findAll.get(shape);
+    }
+
+    public String findPage(
+            ItemSearchShape shape,
+            ItemPageCond page
+    ) {
+        if (page.isBackward()) {
+            return findPreviousPage.get(shape);
+        }
+        if (page.getAfterId() != null) {
+            return findNextPage.get(shape);
+        }
+        return findFirstPage.get(shape);
+    }
+
+    private static String where(
+            List<String> clauses,
+            String keysetClause
+    ) {
+        List<String> where = new ArrayList<>(clauses);
+        if (keysetClause != null) {
+            where.add(keysetClause);
+        }
+        return where.isEmpty() ? "" : " where " + String.join(" and ", where);
+    }
+}
@@ -0,0 +1,62 @@
+package hello.springdb2.repository.support;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemUpdateDto;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Item.version 낙관적 락
+ * - SQL 구현체: update ... set version = version + 1 where id = ? and version = coalesce(?, version)
+ * ( 버전이 없으면 조건이 항상 참이라 문장 모양은 하나다. )
+ * - 메모리 구현체: 저장된 버전과 비교하고 새 Item 에 1 올린 버전을 넣는다.
+ */
+public abstract class ItemVersions {
+    public static final long INITIAL = 0L;
+
+    /**
+     * 조회해 온 Item 과 비교 ( 메모리 구현체, JPA 변경 감지 )
+     */
+    public static void check(
+            Item item,
+            ItemUpdateDto updateParam
+    ) {
+        check(item.getId(), item.getVersion(), updateParam);
+    }
+
+    public static void check(
+            Long itemId,
+            Long currentVersion,
+            ItemUpdateDto updateParam
+    ) {
+        Long expected = updateParam.getVersion();
+        if (expected != null && !expected.equals(currentVersion)) {
+            throw conflict(itemId, expected);
+        }
+    }
+
+    /**
+     * update 문 결과로 확인 - 버전을 주었는데 바뀐 행이 없으면 그 사이 수정( 또는 삭제 )된 것이다.
+     */
+    public static void checkUpdated(
+            long updatedRows,
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        if (updatedRows == 0 && updateParam.getVersion() != null) {
+            throw conflict(itemId, updateParam.getVersion());
+        }
+    }
+
+    public static long next(Item item) {
+        return item.getVersion() == null ? INITIAL : item.getVersion() + 1;
+    }
+
+    private static OptimisticLockingFailureException conflict(
+            Long itemId,
+            Long expected
+    ) {
+        return new OptimisticLockingFailureException(
+                "item was modified or removed. id=" + itemId + ", expected version=" + expected
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package hello.springdb2.repository.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+
+import java.util.function.Consumer;
+
+/**
+ * JPA 조회 결과를 하이버네이트 스크롤로 한 건씩 읽는다.
+ * - 결과를 List 로 만들지 않고, CLEAR_INTERVAL 건마다 영속성 컨텍스트를 비워 메모리 사용량을 일정하게 유지한다.
+ * - 트랜잭션 안에서 호출해야 하며, 같은 트랜잭션에서 변경한 엔티티는 clear 로 버려지므로 읽기 전용 트랜잭션에서 사용한다.
+ */
+public abstract class JpaScroll {
+    public static final int FETCH_SIZE = 1000;
+    public static final int CLEAR_INTERVAL = 1000;
+
+    @SuppressWarnings("unchecked")
+    public static <T> void forEach(
+            EntityManager em,
+            Query query,
+            Consumer<T> action
+    ) {
+        org.hibernate.query.Query<T> hibernateQuery = query.unwrap(org.hibernate.query.Query.class);
+        hibernateQuery.setFetchSize(FETCH_SIZE);
+
+        try (ScrollableResults<T> results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY)) {
+            int count = 0;
+            while (results.next()) {
+                action.accept(results.get());
+                if (++count % CLEAR_INTERVAL == 0) {
+                    em.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package hello.springdb2.repository.support;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 리플렉션 없는 RowMapper
+ * - 엔티티 클래스 + 조회 컬럼 목록마다 한 번만 만들어 캐시한다.
+ * - 기본 생성자와 setter 는 LambdaMetafactory 로 만든 람다로 호출하고, 컬럼은 이름이 아니라 순서로 읽는다.
+ * - 컬럼 item_name 은 setItemName 에 매핑한다. NULL 은 설정하지 않는다. ( 기본값 유지 )
+ * <p>
+ * BeanPropertyRowMapper 는 사용할 때마다 프로퍼티를 분석하고, 행마다 컬럼 이름으로 setter 를 찾아 리플렉션으로 호출한다.
+ */
+public abstract class RowMappers {
+    private static final Map<Shape, RowMapper<?>> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * @param columns select 절의 컬럼 순서 그대로
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(
+            Class<T> type,
+            String... columns
+    ) {
+        Shape shape = new Shape(type, List.of(columns));
+        return (RowMapper<T>) CACHE.computeIfAbsent(shape, RowMappers::create);
+    }
+
+    private static <T> RowMapper<T> create(Shape shape) {
+        @SuppressWarnings("unchecked")
+        Class<T> type = (Class<T>) shape.type();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        Supplier<T> constructor = constructor(lookup, type);
+        List<ColumnSetter<T>> setters = shape.columns().stream()
+                .map(column -> columnSetter(lookup, type, column))
+                .toList();
+
+        @SuppressWarnings("unchecked")
+        ColumnSetter<T>[] columnSetters = setters.toArray(ColumnSetter[]::new);
+        return new GeneratedRowMapper<>(constructor, columnSetters);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> constructor(
+            MethodHandles.Lookup lookup,
+            Class<T> type
+    ) {
+        try {
+            MethodHandle target = lookup.findConstructor(type, MethodType.methodType(void.class));
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    target,
+                    MethodType.methodType(type)
+            );
+            return (Supplier<T>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("기본 생성자가 없습니다. type=" + type.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ColumnSetter<T> columnSetter(
+            MethodHandles.Lookup lookup,
+            Class<T> type,
+            String column
+    ) {
+        Method method = setter(type, column);
+        Class<?> parameterType = method.getParameterTypes()[0];
+        Class<?> boxedType = MethodType.methodType(parameterType).wrap().returnType();
+
+        try {
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    lookup.unreflect(method),
+                    MethodType.methodType(void.class, type, boxedType)
+            );
+            BiConsumer<T, Object> setter = (BiConsumer<T, Object>) site.getTarget().invoke();
+            return new ColumnSetter<>(reader(boxedType), setter);
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("setter 를 만들 수 없습니다. column=" + column, e);
+        }
+    }
+
+    private static Method setter(
+            Class<?> type,
+            String column
+    ) {
+        String name = "set" + StringUtils.capitalize(JdbcUtils.convertUnderscoreNameToPropertyName(column));
+        return Arrays.stream(type.getMethods())
+                .filter(method -> method.getName().equals(name))
+                .filter(method -> method.getParameterCount() == 1)
+                .filter(method -> !Modifier.isStatic(method.getModifiers()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "컬럼에 맞는 setter 가 없습니다. type=" + type.getName() + ", column=" + column
+                ));
+    }
+
+    private static ColumnReader reader(Class<?> type) {
+        if (type == Long.class) {
+            return (rs, index) -> {
+                long value = rs.getLong(index);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Integer.class) {
+            return (rs, index) -> {
+                int value = rs.getInt(index);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == String.class) {
+            return ResultSet::getString;
+        }
+        return (rs, index) -> rs.getObject(index, type);
+    }
+
+    private record Shape(
+            Class<?> type,
+            List<String> columns
+    ) {
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, int index) throws SQLException;
+    }
+
+    private record ColumnSetter<T>(
+            ColumnReader reader,
+            BiConsumer<T, Object> setter
+    ) {
+    }
+
+    private record GeneratedRowMapper<T>(
+            Supplier<T> constructor,
+            ColumnSetter<T>[] setters
+    ) implements RowMapper<T> {
+
+        @Override
+        public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+            T target = constructor.get();
+            for (int i = 0; i < setters.length; i++) {
+                Object value = setters[i].reader().read(rs, i + 1);
+                if (value != null) {
+                    setters[i].setter().accept(target, value);
+                }
+            }
+            return target;
+        }
+    }
+}
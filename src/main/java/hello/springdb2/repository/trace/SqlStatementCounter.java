@@ -0,0 +1,64 @@
+package hello.springdb2.repository.trace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 한 HTTP 요청에서 실행한 SQL 문 수와 읽은 / 바꾼 행 수
+ * - 요청을 처리하는 스레드에 bind 하면 TracingDataSource 가 기록할 때마다 센다.
+ * - 비동기 실행 스레드로 넘길 때는 propagate 로 감싼다. ( ThreadPoolTaskExecutor 의 TaskDecorator )
+ */
+public class SqlStatementCounter {
+    private static final ThreadLocal<SqlStatementCounter> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong rows = new AtomicLong();
+
+    public static SqlStatementCounter current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(SqlStatementCounter counter) {
+        CURRENT.set(counter);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 호출한 스레드의 카운터를 task 를 실행하는 스레드에도 걸어 둔다.
+     */
+    public static Runnable propagate(Runnable task) {
+        SqlStatementCounter counter = CURRENT.get();
+        if (counter == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatementCounter previous = CURRENT.get();
+            CURRENT.set(counter);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    void add(long rowCount) {
+        statements.incrementAndGet();
+        rows.addAndGet(rowCount);
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+}
@@ -0,0 +1,105 @@
+package hello.springdb2.repository.trace;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TracingDataSource 가 잰 SQL 문 하나를 남긴다.
+ * - 메트릭: item.sql.statements ( 타이머 ), item.sql.rows ( 행 수 분포 ), 태그 kind = query | update | batch
+ * - 로그: 모든 문장은 debug, slowThreshold 이상 걸린 문장은 warn ( 느린 쿼리 로그 )
+ * - 현재 스레드에 SqlStatementCounter 가 있으면 센다.
+ * <p>
+ * 레지스트리가 DataSource 보다 늦게 만들어지므로 처음 기록할 때 kind 별 미터를 한 번 만들어 두고 계속 쓴다.
+ */
+@Slf4j
+public class SqlTracer {
+    public static final String QUERY = "query";
+    public static final String UPDATE = "update";
+    public static final String BATCH = "batch";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final long slowThresholdNanos;
+    private volatile Map<String, KindMeters> meters;
+
+    public SqlTracer(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            Duration slowThreshold
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    /**
+     * @param rows      query 는 읽은 행 수, update / batch 는 바뀐 행 수
+     * @param batchSize batch 로 보낸 문장 수 ( batch 가 아니면 1 )
+     */
+    public void record(
+            String kind,
+            String sql,
+            long nanos,
+            long rows,
+            int batchSize
+    ) {
+        SqlStatementCounter counter = SqlStatementCounter.current();
+        if (counter != null) {
+            counter.add(rows);
+        }
+
+        KindMeters kindMeters = meters(kind);
+        if (kindMeters != null) {
+            kindMeters.statements().record(nanos, TimeUnit.NANOSECONDS);
+            kindMeters.rows().record(rows);
+        }
+
+        if (nanos >= slowThresholdNanos) {
+            log.warn("slow sql. ms={}, kind={}, rows={}, batchSize={}, sql={}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), kind, rows, batchSize, sql);
+        } else if (log.isDebugEnabled()) {
+            log.debug("sql. us={}, kind={}, rows={}, batchSize={}, sql={}",
+                    TimeUnit.NANOSECONDS.toMicros(nanos), kind, rows, batchSize, sql);
+        }
+    }
+
+    /**
+     * 레지스트리가 아직 없으면 null ( 다음 기록 때 다시 찾는다. )
+     * - 두 스레드가 동시에 만들어도 레지스트리가 같은 미터를 돌려주므로 문제없다.
+     */
+    private KindMeters meters(String kind) {
+        Map<String, KindMeters> result = meters;
+        if (result == null) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return null;
+            }
+            result = Map.of(
+                    QUERY, KindMeters.of(registry, QUERY),
+                    UPDATE, KindMeters.of(registry, UPDATE),
+                    BATCH, KindMeters.of(registry, BATCH)
+            );
+            meters = result;
+        }
+        return result.get(kind);
+    }
+
+    private record KindMeters(
+            Timer statements,
+            DistributionSummary rows
+    ) {
+        static KindMeters of(
+                MeterRegistry registry,
+                String kind
+        ) {
+            return new KindMeters(
+                    Timer.builder("item.sql.statements").tag("kind", kind).register(registry),
+                    DistributionSummary.builder("item.sql.rows").tag("kind", kind).register(registry)
+            );
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package hello.springdb2.repository.trace;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 애플리케이션 DataSource 를 감싸 실행하는 모든 SQL 문을 SqlTracer 에 남긴다.
+ * - JdbcTemplate, MyBatis, JPA 모두 여기서 커넥션을 얻으므로 백엔드와 상관없이 잡힌다.
+ * - query: 실행부터 ResultSet 을 닫을 때까지의 시간과 next() 로 읽은 행 수
+ * - update: 실행 시간과 바뀐 행 수, batch: addBatch 횟수와 바뀐 행 수의 합
+ * <p>
+ * Connection, Statement, ResultSet 은 JDK 동적 프록시로 감싼다.
+ * - 가로채는 호출: Connection 의 문장 생성, Statement 의 execute* / addBatch / close, ResultSet 의 next / close
+ * - 나머지 호출( ResultSet getter 등 )은 시간을 재지 않고 원본에 바로 넘긴다.
+ * - equals / hashCode 는 프록시 자신의 동일성으로 답한다.
+ * unwrap / isWrapperFor 는 원본에 넘기므로 HikariDataSource 를 꺼내 쓰는 코드도 그대로 동작한다.
+ */
+public class TracingDataSource extends DelegatingDataSource implements Closeable {
+    private final SqlTracer tracer;
+
+    public TracingDataSource(
+            DataSource targetDataSource,
+            SqlTracer tracer
+    ) {
+        super(targetDataSource);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(
+            String username,
+            String password
+    ) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * 감싼 빈의 destroy ( HikariDataSource.close ) 가 가려지지 않도록 넘긴다.
+     */
+    @Override
+    public void close() {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new IllegalStateException("failed to close data source", e);
+            }
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                TracingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection)
+        );
+    }
+
+    private static Object invoke(
+            Object target,
+            Method method,
+            Object[] args
+    ) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(
+                Object proxy,
+                Method method,
+                Object[] args
+        ) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "createStatement" -> statement(
+                        (Statement) TracingDataSource.invoke(target, method, args), Statement.class, null, (Connection) proxy
+                );
+                case "prepareStatement" -> statement(
+                        (Statement) TracingDataSource.invoke(target, method, args), PreparedStatement.class, (String) args[0], (Connection) proxy
+                );
+                case "prepareCall" -> statement(
+                        (Statement) TracingDataSource.invoke(target, method, args), CallableStatement.class, (String) args[0], (Connection) proxy
+                );
+                default -> TracingDataSource.invoke(target, method, args);
+            };
+        }
+
+        private Object statement(
+                Statement statement,
+                Class<? extends Statement> type,
+                String sql,
+                Connection connection
+        ) {
+            return Proxy.newProxyInstance(
+                    TracingDataSource.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    new StatementHandler(statement, sql, connection)
+            );
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection connection;
+        private String sql;
+        private int batchSize;
+
+        /**
+         * execute() 가 ResultSet 을 돌려준 경우, getResultSet() 에서 이어 잴 시작 시각 ( MyBatis )
+         */
+        private long pendingQueryStart = -1;
+        private ResultSetHandler openResultSet;
+
+        StatementHandler(
+                Statement target,
+                String sql,
+                Connection connection
+        ) {
+            this.target = target;
+            this.sql = sql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(
+                Object proxy,
+                Method method,
+                Object[] args
+        ) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "addBatch" -> {
+                    rememberSql(args);
+                    batchSize++;
+                    return TracingDataSource.invoke(target, method, args);
+                }
+                case "clearBatch" -> {
+                    batchSize = 0;
+                    return TracingDataSource.invoke(target, method, args);
+                }
+                case "close" -> {
+                    finishOpenResultSet();
+                    return TracingDataSource.invoke(target, method, args);
+                }
+                case "getResultSet" -> {
+                    Object result = TracingDataSource.invoke(target, method, args);
+                    if (result != null && pendingQueryStart >= 0) {
+                        long queryStart = pendingQueryStart;
+                        pendingQueryStart = -1;
+                        return resultSet((ResultSet) result, queryStart, (Statement) proxy);
+                    }
+                    return result;
+                }
+            }
+            if (!name.startsWith("execute")) {
+                return TracingDataSource.invoke(target, method, args);
+            }
+
+            rememberSql(args);
+            long start = System.nanoTime();
+            Object result = TracingDataSource.invoke(target, method, args);
+
+            switch (name) {
+                case "executeQuery" -> {
+                    return resultSet((ResultSet) result, start, (Statement) proxy);
+                }
+                case "execute" -> {
+                    if ((Boolean) result) {
+                        pendingQueryStart = start;
+                    } else {
+                        tracer.record(SqlTracer.UPDATE, sql, System.nanoTime() - start, Math.max(0, target.getUpdateCount()), 1);
+                    }
+                }
+                case "executeUpdate", "executeLargeUpdate" ->
+                        tracer.record(SqlTracer.UPDATE, sql, System.nanoTime() - start, ((Number) result).longValue(), 1);
+                case "executeBatch" -> recordBatch(start, sum((int[]) result));
+                case "executeLargeBatch" -> recordBatch(start, sum((long[]) result));
+            }
+            return result;
+        }
+
+        /**
+         * Statement 는 실행할 때 SQL 을 받는다. ( PreparedStatement 는 prepareStatement 때 받은 SQL 그대로 )
+         */
+        private void rememberSql(Object[] args) {
+            if (args != null && args.length > 0 && args[0] instanceof String statementSql) {
+                sql = statementSql;
+            }
+        }
+
+        private ResultSet resultSet(
+                ResultSet resultSet,
+                long start,
+                Statement statement
+        ) {
+            finishOpenResultSet();
+            openResultSet = new ResultSetHandler(resultSet, sql, start, statement);
+            return (ResultSet) Proxy.newProxyInstance(
+                    TracingDataSource.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    openResultSet
+            );
+        }
+
+        /**
+         * ResultSet 을 닫지 않고 Statement 를 닫거나 다음 쿼리를 실행하면 그때까지를 기록한다.
+         */
+        private void finishOpenResultSet() {
+            if (openResultSet != null) {
+                openResultSet.finish();
+                openResultSet = null;
+            }
+        }
+
+        private void recordBatch(
+                long start,
+                long rows
+        ) {
+            tracer.record(SqlTracer.BATCH, sql, System.nanoTime() - start, rows, batchSize);
+            batchSize = 0;
+        }
+
+        /**
+         * SUCCESS_NO_INFO ( -2 ) 같은 음수는 건수를 모르는 것이므로 세지 않는다.
+         */
+        private static long sum(int[] counts) {
+            long rows = 0;
+            for (int count : counts) {
+                rows += Math.max(0, count);
+            }
+            return rows;
+        }
+
+        private static long sum(long[] counts) {
+            long rows = 0;
+            for (long count : counts) {
+                rows += Math.max(0, count);
+            }
+            return rows;
+        }
+    }
+
+    private class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private final long start;
+        private final Statement statement;
+        private long rows;
+        private boolean finished;
+
+        ResultSetHandler(
+                ResultSet target,
+                String sql,
+                long start,
+                Statement statement
+        ) {
+            this.target = target;
+            this.sql = sql;
+            this.start = start;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(
+                Object proxy,
+                Method method,
+                Object[] args
+        ) throws Throwable {
+            return switch (method.getName()) {
+                case "next" -> {
+                    Object result = TracingDataSource.invoke(target, method, args);
+                    if ((Boolean) result) {
+                        rows++;
+                    }
+                    yield result;
+                }
+                case "close" -> {
+                    Object result = TracingDataSource.invoke(target, method, args);
+                    finish();
+                    yield result;
+                }
+                case "getStatement" -> statement;
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> TracingDataSource.invoke(target, method, args);
+            };
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                tracer.record(SqlTracer.QUERY, sql, System.nanoTime() - start, rows, 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package hello.springdb2.repository.version;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.DelegatingItemRepository;
+import hello.springdb2.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 쓰기마다 ItemCatalogVersion 을 올리는 데코레이터 - 어떤 ItemRepository 든 감쌀 수 있다.
+ * - 실패한 쓰기도 올린다. ( 일부만 반영됐을 수 있고, 불필요하게 올리는 건 304 를 한 번 놓칠 뿐이다. )
+ * - 읽기는 그대로 위임한다.
+ */
+public class CatalogVersionItemRepository implements DelegatingItemRepository {
+    private final ItemRepository delegate;
+    private final ItemCatalogVersion catalogVersion;
+
+    public CatalogVersionItemRepository(
+            ItemRepository delegate,
+            ItemCatalogVersion catalogVersion
+    ) {
+        this.delegate = delegate;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public ItemRepository getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Item save(Item item) {
+        try {
+            return delegate.save(item);
+        } finally {
+            catalogVersion.bump();
+        }
+    }
+
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        try {
+            return delegate.saveAll(items);
+        } finally {
+            catalogVersion.bump();
+        }
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        try {
+            delegate.update(itemId, updateParam);
+        } finally {
+            catalogVersion.bump();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        return delegate.findAll(cond);
+    }
+
+    @Override
+    public List<Item> findPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        return delegate.findPage(cond, page);
+    }
+
+    @Override
+    public void streamAll(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        delegate.streamAll(cond, action);
+    }
+}
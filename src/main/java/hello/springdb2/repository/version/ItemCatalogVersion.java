@@ -0,0 +1,99 @@
+package hello.springdb2.repository.version;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 상품 목록 전체의 버전 - 쓰기( save / saveAll / update )마다 1 씩 오른다.
+ * - 조건부 조회( ETag / Last-Modified )에서 저장소를 조회하지 않고 "그 뒤로 바뀐 게 있는지" 만 본다.
+ * - epoch 는 기동 시각이라 재시작하면 예전 태그와 겹치지 않는다. ( 메모리 저장소는 id, version 이 다시 0 부터 )
+ * <p>
+ * 트랜잭션 안의 쓰기는 커밋 전에 한 번, 끝난 뒤( afterCompletion )에 한 번 더 올린다.
+ * 커밋 전에 읽은 옛 데이터가 새 버전 태그를 달고 캐시되지 않도록 하기 위해서다.
+ * 읽는 쪽은 데이터를 읽기 전에 current() 를 먼저 가져온다.
+ * <p>
+ * 이 버전은 JVM 하나의 카운터라서 이 인스턴스의 데코레이터를 거친 쓰기만 센다.
+ * 다른 인스턴스의 쓰기, 직접 실행한 SQL, 복제 DB 로 읽는 경우( DataSourceRoutingConfig )에는 태그가 맞아도 데이터가 바뀌었을 수 있다.
+ * 그래서 태그만 보고 조회 없이 304 로 답하는 것( canSkipLookup )은 skipLookup 으로 켰을 때만 한다. ( 기본 꺼짐 )
+ */
+public class ItemCatalogVersion {
+    private final Clock clock;
+    private final String epoch;
+    private final boolean skipLookup;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile long lastModified;
+
+    public ItemCatalogVersion() {
+        this(Clock.systemUTC(), false);
+    }
+
+    public ItemCatalogVersion(Clock clock) {
+        this(clock, false);
+    }
+
+    /**
+     * @param skipLookup 태그가 지금 버전이면 조회 없이 304 로 답할지 ( 모든 쓰기가 이 인스턴스를 거치고 주 DB 로 읽을 때만 )
+     */
+    public ItemCatalogVersion(
+            Clock clock,
+            boolean skipLookup
+    ) {
+        this.clock = clock;
+        this.skipLookup = skipLookup;
+        this.lastModified = clock.millis();
+        this.epoch = Long.toString(lastModified, Character.MAX_RADIX);
+    }
+
+    /**
+     * 마지막 쓰기 시각을 먼저 읽는다. ( 시퀀스가 더 새로우면 다음 요청에서 다시 확인할 뿐이다. )
+     */
+    public Stamp current() {
+        long modified = lastModified;
+        return new Stamp(epoch, sequence.get(), modified);
+    }
+
+    /**
+     * 태그가 지금 버전이면 데이터를 다시 읽지 않아도 되는지
+     */
+    public boolean canSkipLookup() {
+        return skipLookup;
+    }
+
+    public void bump() {
+        advance();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    advance();
+                }
+            });
+        }
+    }
+
+    private void advance() {
+        sequence.incrementAndGet();
+        lastModified = Math.max(lastModified, clock.millis());
+    }
+
+    /**
+     * @param epoch        기동 시각 ( 36진수 )
+     * @param sequence     기동 후 쓰기 횟수
+     * @param lastModified 마지막 쓰기 시각 ( epoch ms, 쓰기가 없으면 기동 시각 )
+     */
+    public record Stamp(
+            String epoch,
+            long sequence,
+            long lastModified
+    ) {
+        /**
+         * ETag 본문 - epoch.sequence
+         */
+        public String token() {
+            return epoch + "." + sequence;
+        }
+    }
+}
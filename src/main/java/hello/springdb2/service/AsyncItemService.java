@@ -0,0 +1,29 @@
+package hello.springdb2.service;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemPage;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ItemService 의 비동기 버전
+ * - 호출 스레드 ( 서블릿 스레드 ) 를 붙잡지 않고 바로 돌아온다.
+ * - 실행할 자리가 없으면 RejectedExecutionException 으로 실패한 future 를 돌려준다.
+ */
+public interface AsyncItemService {
+    CompletableFuture<Item> save(ItemAddDto dto);
+
+    CompletableFuture<Void> update(Long itemId, ItemUpdateDto updateParam);
+
+    CompletableFuture<Optional<Item>> findById(Long id);
+
+    CompletableFuture<List<Item>> findItems(ItemSearchCond cond);
+
+    CompletableFuture<ItemPage> findItemPage(ItemSearchCond cond, ItemPageCond page);
+}
@@ -2,11 +2,15 @@ package hello.springdb2.service;
 
 import hello.springdb2.domain.Item;
 import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemLookup;
+import hello.springdb2.dto.ItemPage;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ItemService {
     Item save(ItemAddDto dto);
@@ -15,5 +19,14 @@ public interface ItemService {
 
     Optional<Item> findById(Long id);
 
+    /**
+     * 여러 id 한 번에 조회 - 요청 순서대로, 없는 id 는 missingIds 로
+     */
+    ItemLookup findItemsById(List<Long> ids);
+
     List<Item> findItems(ItemSearchCond cond);
+
+    ItemPage findItemPage(ItemSearchCond cond, ItemPageCond page);
+
+    void streamItems(ItemSearchCond cond, Consumer<Item> action);
 }
@@ -2,6 +2,9 @@ package hello.springdb2.service;
 
 import hello.springdb2.domain.Item;
 import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemLookup;
+import hello.springdb2.dto.ItemPage;
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import hello.springdb2.repository.ItemRepository;
@@ -10,6 +13,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -40,10 +44,33 @@ public class ItemServiceV1 implements ItemService {
         return itemRepository.findById(id);
     }
 
+    @Override
+    public ItemLookup findItemsById(
+            List<Long> ids
+    ) {
+        return ItemLookup.of(ids, itemRepository.findAllById(ids));
+    }
+
     @Override
     public List<Item> findItems(
             ItemSearchCond cond
     ) {
         return itemRepository.findAll(cond);
     }
+
+    @Override
+    public ItemPage findItemPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        return ItemPage.of(itemRepository.findPage(cond, page), page);
+    }
+
+    @Override
+    public void streamItems(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        itemRepository.streamAll(cond, action);
+    }
 }
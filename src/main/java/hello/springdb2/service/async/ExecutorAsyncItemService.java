@@ -0,0 +1,68 @@
+package hello.springdb2.service.async;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemPage;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.service.AsyncItemService;
+import hello.springdb2.service.ItemService;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * ItemService 호출을 전용 Executor 에서 실행한다.
+ * - 트랜잭션은 delegate ( @Transactional ItemService ) 가 실행 스레드에서 연다.
+ * - Executor 는 DataSource 커넥션 풀 크기에 맞춰 제한한다. ( AsyncItemServiceConfig )
+ */
+@RequiredArgsConstructor
+public class ExecutorAsyncItemService implements AsyncItemService {
+    private final ItemService delegate;
+    private final Executor executor;
+
+    @Override
+    public CompletableFuture<Item> save(ItemAddDto dto) {
+        return submit(() -> delegate.save(dto));
+    }
+
+    @Override
+    public CompletableFuture<Void> update(Long itemId, ItemUpdateDto updateParam) {
+        return submit(() -> {
+            delegate.update(itemId, updateParam);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Item>> findById(Long id) {
+        return submit(() -> delegate.findById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Item>> findItems(ItemSearchCond cond) {
+        return submit(() -> delegate.findItems(cond));
+    }
+
+    @Override
+    public CompletableFuture<ItemPage> findItemPage(ItemSearchCond cond, ItemPageCond page) {
+        return submit(() -> delegate.findItemPage(cond, page));
+    }
+
+    /**
+     * 큐가 가득 차서 거절되면 호출자에게 던지지 않고 실패한 future 로 돌려준다.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
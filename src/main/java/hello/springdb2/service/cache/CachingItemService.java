@@ -0,0 +1,160 @@
+package hello.springdb2.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemLookup;
+import hello.springdb2.dto.ItemPage;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.service.ItemService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * findItems 검색 결과 캐시 데코레이터
+ * - 키: 정리된 ItemSearchCond ( ItemSearchCond.normalized() )
+ * - TTL 이 지나거나 save / update 가 일어나면 버린다. ( 어떤 조건의 결과가 바뀌는지 모르므로 전부 버린다. )
+ * - 값은 복사본 스냅샷이고, 꺼낼 때도 복사본을 돌려준다. 받은 Item 을 고쳐도 캐시는 바뀌지 않는다.
+ * - findById, findItemsById, findItemPage, streamItems 는 그대로 위임한다.
+ */
+public class CachingItemService implements ItemService {
+    private final ItemService delegate;
+    private final Cache<ItemSearchCond, List<Item>> cache;
+
+    /**
+     * 쓰기마다 증가한다. 조회 중에 쓰기가 끼어들면 방금 넣은 결과를 다시 버린다.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingItemService(
+            ItemService delegate,
+            long maximumSize,
+            Duration ttl
+    ) {
+        this(delegate, maximumSize, ttl, Ticker.systemTicker());
+    }
+
+    CachingItemService(
+            ItemService delegate,
+            long maximumSize,
+            Duration ttl,
+            Ticker ticker
+    ) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Item save(ItemAddDto dto) {
+        try {
+            return delegate.save(dto);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        try {
+            delegate.update(itemId, updateParam);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public ItemLookup findItemsById(List<Long> ids) {
+        return delegate.findItemsById(ids);
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond cond) {
+        ItemSearchCond key = cond.normalized();
+        List<Item> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+
+        long readGeneration = generation.get();
+        List<Item> snapshot = copyOf(delegate.findItems(key));
+        cache.put(key, snapshot);
+
+        // 조회하는 동안 쓰기가 있었다면 오래된 결과일 수 있다.
+        if (generation.get() != readGeneration) {
+            cache.invalidate(key);
+        }
+        return copyOf(snapshot);
+    }
+
+    @Override
+    public ItemPage findItemPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        return delegate.findItemPage(cond, page);
+    }
+
+    @Override
+    public void streamItems(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        delegate.streamItems(cond, action);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * cache.gets{result=hit|miss}, cache.evictions, cache.size 등을 cacheName 으로 등록한다.
+     */
+    public void bindTo(
+            MeterRegistry registry,
+            String cacheName
+    ) {
+        CaffeineCacheMetrics.monitor(registry, cache, cacheName);
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static List<Item> copyOf(List<Item> items) {
+        return items.stream()
+                .map(CachingItemService::copyOf)
+                .toList();
+    }
+
+    private static Item copyOf(Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(item.getId());
+        copy.setVersion(item.getVersion());
+        return copy;
+    }
+}
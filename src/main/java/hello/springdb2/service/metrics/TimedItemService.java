@@ -0,0 +1,109 @@
+package hello.springdb2.service.metrics;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemLookup;
+import hello.springdb2.dto.ItemPage;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.metrics.MethodMetrics;
+import hello.springdb2.service.ItemService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * ItemService 메서드별 메트릭 데코레이터 ( MethodMetrics )
+ * - 메트릭 이름: item.service.calls, item.service.results
+ * - 같은 요청의 item.repository.calls 와 비교하면 서비스( 트랜잭션 등 ) 몫을 알 수 있다.
+ */
+public class TimedItemService implements ItemService {
+    public static final String METRIC_NAME = "item.service";
+
+    private final ItemService delegate;
+    private final MethodMetrics save;
+    private final MethodMetrics update;
+    private final MethodMetrics findById;
+    private final MethodMetrics findItemsById;
+    private final MethodMetrics findItems;
+    private final MethodMetrics findItemPage;
+    private final MethodMetrics streamItems;
+
+    public TimedItemService(
+            ItemService delegate,
+            String implementation,
+            MeterRegistry registry
+    ) {
+        this.delegate = delegate;
+        this.save = new MethodMetrics(registry, METRIC_NAME, implementation, "save");
+        this.update = new MethodMetrics(registry, METRIC_NAME, implementation, "update");
+        this.findById = new MethodMetrics(registry, METRIC_NAME, implementation, "findById");
+        this.findItemsById = new MethodMetrics(registry, METRIC_NAME, implementation, "findItemsById");
+        this.findItems = new MethodMetrics(registry, METRIC_NAME, implementation, "findItems");
+        this.findItemPage = new MethodMetrics(registry, METRIC_NAME, implementation, "findItemPage");
+        this.streamItems = new MethodMetrics(registry, METRIC_NAME, implementation, "streamItems");
+    }
+
+    @Override
+    public Item save(ItemAddDto dto) {
+        return save.record(() -> delegate.save(dto));
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        update.record(() -> delegate.update(itemId, updateParam));
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return findById.record(() -> delegate.findById(id));
+    }
+
+    @Override
+    public ItemLookup findItemsById(List<Long> ids) {
+        ItemLookup result = findItemsById.record(() -> delegate.findItemsById(ids));
+        findItemsById.results(result.getItems().size());
+        return result;
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond cond) {
+        return findItems.recordResults(() -> delegate.findItems(cond));
+    }
+
+    @Override
+    public ItemPage findItemPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        ItemPage result = findItemPage.record(() -> delegate.findItemPage(cond, page));
+        findItemPage.results(result.getItems().size());
+        return result;
+    }
+
+    /**
+     * 호출 시간에는 action 처리 시간 ( CSV 쓰기 등 ) 도 포함된다.
+     */
+    @Override
+    public void streamItems(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        long[] count = {0};
+        streamItems.record(() -> delegate.streamItems(cond, item -> {
+            count[0]++;
+            action.accept(item);
+        }));
+        streamItems.results(count[0]);
+    }
+
+    public ItemService getDelegate() {
+        return delegate;
+    }
+}
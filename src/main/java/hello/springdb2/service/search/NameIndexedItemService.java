@@ -0,0 +1,80 @@
+package hello.springdb2.service.search;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemLookup;
+import hello.springdb2.dto.ItemPage;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.search.LiveItemNameIndex;
+import hello.springdb2.service.ItemService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 쓰기마다 LiveItemNameIndex 를 갱신하는 서비스 데코레이터
+ * - ItemRepository 를 거치지 않는 서비스( ItemServiceV2 - 스프링 데이터 JPA 직접 사용 )의 쓰기도 색인에 반영한다.
+ * - ItemServiceV1 은 리포지토리 데코레이터와 함께 두 번 반영하지만, 같은 이름을 다시 넣을 뿐이다.
+ */
+public class NameIndexedItemService implements ItemService {
+    private final ItemService delegate;
+    private final LiveItemNameIndex index;
+
+    public NameIndexedItemService(
+            ItemService delegate,
+            LiveItemNameIndex index
+    ) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    @Override
+    public Item save(ItemAddDto dto) {
+        Item savedItem = delegate.save(dto);
+        index.afterWrite(savedItem.getId(), savedItem.getItemName());
+        return savedItem;
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        delegate.update(itemId, updateParam);
+        index.afterWrite(itemId, updateParam.getItemName());
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public ItemLookup findItemsById(List<Long> ids) {
+        return delegate.findItemsById(ids);
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond cond) {
+        return delegate.findItems(cond);
+    }
+
+    @Override
+    public ItemPage findItemPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        return delegate.findItemPage(cond, page);
+    }
+
+    @Override
+    public void streamItems(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        delegate.streamItems(cond, action);
+    }
+}
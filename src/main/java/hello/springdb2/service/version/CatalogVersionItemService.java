@@ -0,0 +1,85 @@
+package hello.springdb2.service.version;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemLookup;
+import hello.springdb2.dto.ItemPage;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.repository.version.ItemCatalogVersion;
+import hello.springdb2.service.ItemService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 쓰기마다 ItemCatalogVersion 을 올리는 서비스 데코레이터
+ * - ItemRepository 를 거치지 않는 서비스( ItemServiceV2 - 스프링 데이터 JPA 직접 사용 )의 쓰기도 잡는다.
+ * - ItemServiceV1 은 리포지토리 데코레이터와 함께 두 번 오르지만, 버전은 바뀌었는지만 보므로 상관없다.
+ */
+public class CatalogVersionItemService implements ItemService {
+    private final ItemService delegate;
+    private final ItemCatalogVersion catalogVersion;
+
+    public CatalogVersionItemService(
+            ItemService delegate,
+            ItemCatalogVersion catalogVersion
+    ) {
+        this.delegate = delegate;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public Item save(ItemAddDto dto) {
+        try {
+            return delegate.save(dto);
+        } finally {
+            catalogVersion.bump();
+        }
+    }
+
+    @Override
+    public void update(
+            Long itemId,
+            ItemUpdateDto updateParam
+    ) {
+        try {
+            delegate.update(itemId, updateParam);
+        } finally {
+            catalogVersion.bump();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public ItemLookup findItemsById(List<Long> ids) {
+        return delegate.findItemsById(ids);
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond cond) {
+        return delegate.findItems(cond);
+    }
+
+    @Override
+    public ItemPage findItemPage(
+            ItemSearchCond cond,
+            ItemPageCond page
+    ) {
+        return delegate.findItemPage(cond, page);
+    }
+
+    @Override
+    public void streamItems(
+            ItemSearchCond cond,
+            Consumer<Item> action
+    ) {
+        delegate.streamItems(cond, action);
+    }
+}
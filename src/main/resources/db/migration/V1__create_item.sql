@@ -1,4 +1,3 @@
-drop table if exists item CASCADE;
 create table item
 (
     id        bigint generated by default as identity,
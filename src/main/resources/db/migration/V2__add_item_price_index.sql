@@ -0,0 +1,4 @@
+-- price <= ? 검색용 인덱스
+-- (price, id, item_name, quantity) 를 모두 담아 price 범위 검색은 인덱스만 읽고,
+-- 같은 price 안에서는 id 순서로 정렬되어 있다. price 단일 인덱스 역할도 한다.
+create index if not exists item_price_covering_idx on item (price, id, item_name, quantity);
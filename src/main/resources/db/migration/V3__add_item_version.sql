@@ -0,0 +1,6 @@
+-- 낙관적 락 / 조건부 조회( ETag )용 버전, 수정할 때마다 1 씩 올린다.
+alter table item add column if not exists version bigint default 0 not null;
+
+-- 검색 쿼리가 version 도 읽으므로 커버링 인덱스에 함께 담는다.
+drop index if exists item_price_covering_idx;
+create index item_price_covering_idx on item (price, id, item_name, quantity, version);
@@ -0,0 +1,48 @@
+package hello.springdb2.config;
+
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import hello.springdb2.repository.DelegatingItemRepository;
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.cache.CachingItemRepository;
+import hello.springdb2.repository.metrics.TimedItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemDecoratorConfigTest {
+
+    @Test
+    void decoratesInOrder() {
+        // given - 등록 순서와 반대로 둔다.
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", new SimpleMeterRegistry());
+        ObjectProvider<MeterRegistry> meterRegistry = beanFactory.getBeanProvider(MeterRegistry.class);
+        beanFactory.addBean("metrics", new ItemMetricsConfig().timedItemDecorator(meterRegistry));
+        beanFactory.addBean("cache", new ItemCacheConfig().cachingItemRepositoryDecorator(100, meterRegistry));
+        ItemDecoratorConfig.ItemDecoratorPostProcessor postProcessor =
+                ItemDecoratorConfig.itemDecoratorPostProcessor(beanFactory.getBeanProvider(ItemDecorator.class));
+
+        // when
+        Object bean = postProcessor.postProcessAfterInitialization(new MemoryItemRepository(), "itemRepository");
+
+        // then - 메트릭이 캐시 바깥
+        assertThat(bean).isInstanceOf(TimedItemRepository.class);
+        ItemRepository inner = ((DelegatingItemRepository) bean).getDelegate();
+        assertThat(inner).isInstanceOf(CachingItemRepository.class);
+        assertThat(DelegatingItemRepository.unwrap(inner)).isInstanceOf(MemoryItemRepository.class);
+    }
+
+    @Test
+    void ignoresOtherBeans() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        ItemDecoratorConfig.ItemDecoratorPostProcessor postProcessor =
+                ItemDecoratorConfig.itemDecoratorPostProcessor(beanFactory.getBeanProvider(ItemDecorator.class));
+
+        Object bean = new Object();
+        assertThat(postProcessor.postProcessAfterInitialization(bean, "other")).isSameAs(bean);
+    }
+}
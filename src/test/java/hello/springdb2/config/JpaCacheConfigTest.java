@@ -0,0 +1,107 @@
+package hello.springdb2.config;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.example.v2.repository.ItemRepositoryV2;
+import hello.springdb2.repository.ItemRepository;
+import hello.springdb2.repository.support.ItemCacheRegions;
+import hello.springdb2.service.ItemService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 2차 캐시는 커밋된 데이터만 담으므로 테스트 트랜잭션 ( 롤백 ) 없이 실행하고, 끝나면 지운다.
+ */
+@SpringBootTest
+class JpaCacheConfigTest {
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRepositoryV2 itemRepositoryV2;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void beforeEach() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void afterEach() {
+        itemRepositoryV2.deleteAllInBatch();
+    }
+
+    @Test
+    void findByIdHitsEntityRegionUntilUpdate() {
+        // given
+        Item item = itemService.save(new ItemAddDto("cacheA", 10000, 10));
+        itemService.findById(item.getId());
+        statistics.clear();
+
+        // when
+        itemService.findById(item.getId());
+        itemService.findById(item.getId());
+
+        // then
+        assertThat(statistics.getDomainDataRegionStatistics(ItemCacheRegions.ITEM).getHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // update 는 영역을 비우므로 다음 조회는 DB 에서 새 값을 읽는다.
+        itemService.update(item.getId(), new ItemUpdateDto("cacheB", 20000, 20, null));
+        assertThat(itemService.findById(item.getId())).get().extracting(Item::getItemName).isEqualTo("cacheB");
+        assertThat(statistics.getDomainDataRegionStatistics(ItemCacheRegions.ITEM).getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void searchHitsQueryCacheUntilWrite() {
+        // given
+        itemService.save(new ItemAddDto("cacheA", 10000, 10));
+        ItemSearchCond cond = new ItemSearchCond("cache", null);
+
+        // when
+        itemService.findItems(cond);
+        List<Item> cached = itemService.findItems(cond);
+
+        // then
+        assertThat(cached).extracting(Item::getItemName).containsExactly("cacheA");
+        assertThat(statistics.getQueryRegionStatistics(ItemCacheRegions.ITEM_SEARCH).getHitCount()).isEqualTo(1);
+
+        // insert 는 item 테이블의 쿼리 캐시를 무효로 만든다.
+        itemService.save(new ItemAddDto("cacheB", 20000, 20));
+        assertThat(itemService.findItems(cond)).extracting(Item::getItemName).containsExactly("cacheA", "cacheB");
+    }
+
+    @Test
+    void saveAllInvalidatesQueryCache() {
+        // given
+        ItemSearchCond cond = new ItemSearchCond("cache", null);
+        assertThat(itemService.findItems(cond)).isEmpty();
+
+        // when - 하이버네이트를 거치지 않는 JDBC 배치 insert
+        itemRepository.saveAll(List.of(new Item("cacheA", 10000, 10), new Item("cacheB", 20000, 20)));
+
+        // then
+        assertThat(itemService.findItems(cond)).extracting(Item::getItemName).containsExactly("cacheA", "cacheB");
+    }
+}
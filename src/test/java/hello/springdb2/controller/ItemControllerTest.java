@@ -0,0 +1,78 @@
+package hello.springdb2.controller;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.example.v2.repository.ItemRepositoryV2;
+import hello.springdb2.repository.version.ItemCatalogVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CatalogVersionItemService 를 거치지 않은 쓰기 ( 스프링 데이터 JPA 직접 사용 ) 는 카탈로그 버전을 올리지 않는다.
+ * 기본 설정에서는 그래도 조회해서 확인하므로 옛 태그에 304 로 답하지 않는다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ItemCatalogVersion catalogVersion;
+
+    @Autowired
+    private ItemRepositoryV2 itemRepositoryV2;
+
+    @AfterEach
+    void afterEach() {
+        itemRepositoryV2.deleteAll();
+    }
+
+    @Test
+    void itemsWrittenAroundCatalogVersion() throws Exception {
+        // given
+        String etag = ItemETags.catalog(catalogVersion.current());
+
+        // when
+        itemRepositoryV2.save(new Item("itemA", 10000, 10));
+
+        // then - 태그는 여전히 지금 버전이지만 검색한다.
+        mockMvc.perform(get("/items").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void itemWrittenAroundCatalogVersion() throws Exception {
+        // given
+        Item item = itemRepositoryV2.save(new Item("itemA", 10000, 10));
+        String etag = ItemETags.item(catalogVersion.current(), item.getVersion());
+
+        // when
+        item.setItemName("itemB");
+        itemRepositoryV2.save(item);
+
+        // then
+        mockMvc.perform(get("/items/{itemId}", item.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void csv() {
+        assertThat(ItemController.csv(null)).isEmpty();
+        assertThat(ItemController.csv("itemA")).isEqualTo("itemA");
+        assertThat(ItemController.csv("item,A")).isEqualTo("\"item,A\"");
+        assertThat(ItemController.csv("item\"A")).isEqualTo("\"item\"\"A\"");
+        assertThat(ItemController.csv("item\nA")).isEqualTo("\"item\nA\"");
+        assertThat(ItemController.csv("item\rA")).isEqualTo("\"item\rA\"");
+    }
+}
@@ -1,18 +1,22 @@
 package hello.springdb2.domain;
 
+import hello.springdb2.dto.ItemPageCond;
 import hello.springdb2.dto.ItemSearchCond;
 import hello.springdb2.dto.ItemUpdateDto;
 import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import hello.springdb2.repository.DelegatingItemRepository;
 import hello.springdb2.repository.ItemRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @Transactional
 @SpringBootTest
@@ -23,9 +27,9 @@ public class ItemRepositoryTest {
 
     @AfterEach
     void afterEach() {
-        // 메모리 Repository 인 경우 제한적으로 사용
-        if (this.itemRepository instanceof MemoryItemRepository) {
-            ((MemoryItemRepository) this.itemRepository).clearStore();
+        // 메모리 Repository 인 경우 제한적으로 사용 ( 데코레이터로 감싸져 있으면 벗긴다. )
+        if (DelegatingItemRepository.unwrap(this.itemRepository) instanceof MemoryItemRepository memoryItemRepository) {
+            memoryItemRepository.clearStore();
         }
     }
 
@@ -42,6 +46,26 @@ public class ItemRepositoryTest {
         assertThat(findItem).isEqualTo(savedItem);
     }
 
+    @Test
+    void saveAll() {
+        // given
+        List<Item> items = List.of(
+                new Item("itemA", 10000, 10),
+                new Item("itemB", 20000, 20),
+                new Item("itemC", 30000, 30)
+        );
+
+        // when
+        List<Item> savedItems = itemRepository.saveAll(items);
+
+        // then
+        assertThat(savedItems).extracting(Item::getId).doesNotContainNull().doesNotHaveDuplicates();
+        for (Item savedItem : savedItems) {
+            Item findItem = itemRepository.findById(savedItem.getId()).orElseThrow();
+            assertThat(findItem).isEqualTo(savedItem);
+        }
+    }
+
     @Test
     void updateItem() {
         // given
@@ -50,7 +74,7 @@ public class ItemRepositoryTest {
         Long itemId = savedItem.getId();
 
         // when
-        ItemUpdateDto updateParam = new ItemUpdateDto("item2", 20000, 30);
+        ItemUpdateDto updateParam = new ItemUpdateDto("item2", 20000, 30, null);
         itemRepository.update(itemId, updateParam);
 
         // then
@@ -60,6 +84,23 @@ public class ItemRepositoryTest {
         assertThat(findItem.getQuantity()).isEqualTo(updateParam.getQuantity());
     }
 
+    @Test
+    void updateWithVersion() {
+        // given
+        Item savedItem = itemRepository.save(new Item("item1", 10000, 10));
+        assertThat(savedItem.getVersion()).isZero();
+
+        // when - 읽은 버전으로 수정하면 버전이 오른다.
+        itemRepository.update(savedItem.getId(), new ItemUpdateDto("item2", 20000, 20, 0L));
+
+        // then - 옛 버전으로 다시 수정하면 실패하고 값은 그대로다.
+        assertThatThrownBy(() -> itemRepository.update(savedItem.getId(), new ItemUpdateDto("item3", 30000, 30, 0L)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        Item findItem = itemRepository.findById(savedItem.getId()).orElseThrow();
+        assertThat(findItem.getItemName()).isEqualTo("item2");
+        assertThat(findItem.getVersion()).isEqualTo(1L);
+    }
+
     @Test
     void findItems() {
         // given
@@ -87,6 +128,46 @@ public class ItemRepositoryTest {
         test("itemA", 10000, item1);
     }
 
+    @Test
+    void findPage() {
+        // given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemB-1", 30000, 30));
+        Item item4 = itemRepository.save(new Item("itemA-3", 40000, 40));
+        ItemSearchCond all = new ItemSearchCond(null, null);
+
+        // 정방향: 첫 페이지, afterId 다음 페이지
+        assertThat(itemRepository.findPage(all, new ItemPageCond(null, null, 1)))
+                .containsExactly(item1, item2);
+        assertThat(itemRepository.findPage(all, new ItemPageCond(item2.getId(), null, 1)))
+                .containsExactly(item3, item4);
+
+        // 역방향: beforeId 부터 id 내림차순
+        assertThat(itemRepository.findPage(all, new ItemPageCond(null, item4.getId(), 1)))
+                .containsExactly(item3, item2);
+
+        // 검색 조건과 함께
+        assertThat(itemRepository.findPage(new ItemSearchCond("itemA", null), new ItemPageCond(item1.getId(), null, 5)))
+                .containsExactly(item2, item4);
+    }
+
+    @Test
+    void findAllById() {
+        // given
+        Item item1 = itemRepository.save(new Item("itemA", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemB", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemC", 30000, 30));
+        long missingId = item3.getId() + 1000;
+
+        // when - 중복, 없는 id 포함 ( 순서는 보장하지 않는다. )
+        List<Item> result = itemRepository.findAllById(List.of(item3.getId(), missingId, item1.getId(), item3.getId()));
+
+        // then
+        assertThat(result).containsExactlyInAnyOrder(item1, item3);
+        assertThat(itemRepository.findAllById(List.of())).isEmpty();
+    }
+
     void test(
             String itemName,
             Integer maxPrice,
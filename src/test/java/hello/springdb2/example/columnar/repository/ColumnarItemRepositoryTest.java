@@ -0,0 +1,117 @@
+package hello.springdb2.example.columnar.repository;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarItemRepositoryTest {
+    // 배열과 id 맵이 여러 번 늘어나도록 작게 시작한다.
+    private final ColumnarItemRepository itemRepository = new ColumnarItemRepository(4);
+    private final MemoryItemRepository memoryItemRepository = new MemoryItemRepository();
+
+    @AfterEach
+    void afterEach() {
+        memoryItemRepository.clearStore();
+    }
+
+    @Test
+    void saveAndUpdate() {
+        // given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+
+        // when - 더 긴 이름, null 값으로 수정
+        itemRepository.update(item.getId(), new ItemUpdateDto("상품A-long", null, 20, null));
+
+        // then
+        Item findItem = itemRepository.findById(item.getId()).orElseThrow();
+        assertThat(findItem.getId()).isEqualTo(item.getId());
+        assertThat(findItem.getItemName()).isEqualTo("상품A-long");
+        assertThat(findItem.getPrice()).isNull();
+        assertThat(findItem.getQuantity()).isEqualTo(20);
+        assertThat(findItem.getVersion()).isEqualTo(1L);
+
+        // 반환된 Item 을 고쳐도 저장소는 바뀌지 않는다.
+        findItem.setItemName("changed");
+        assertThat(itemRepository.findById(item.getId())).get().extracting(Item::getItemName).isEqualTo("상품A-long");
+    }
+
+    @Test
+    void findAllMatchesMemoryRepository() {
+        // given
+        for (int i = 0; i < 1000; i++) {
+            String itemName = i % 7 == 0 ? null : (i % 2 == 0 ? "item" : "상품") + i;
+            Integer price = i % 5 == 0 ? null : i * 10;
+            itemRepository.save(new Item(itemName, price, i));
+            memoryItemRepository.save(new Item(itemName, price, i));
+        }
+
+        // when, then - 이름, 가격 조건 조합별로 같은 결과 ( id 는 저장소마다 다르므로 값으로 비교 )
+        for (ItemSearchCond cond : List.of(
+                new ItemSearchCond(null, null),
+                new ItemSearchCond("", null),
+                new ItemSearchCond("item1", null),
+                new ItemSearchCond("품9", null),
+                new ItemSearchCond(null, 3000),
+                new ItemSearchCond("9", 5000)
+        )) {
+            assertThat(values(itemRepository.findAll(cond))).isEqualTo(values(memoryItemRepository.findAll(cond)));
+
+            List<Item> streamed = new ArrayList<>();
+            itemRepository.streamAll(cond, streamed::add);
+            assertThat(values(streamed)).isEqualTo(values(memoryItemRepository.findAll(cond)));
+        }
+    }
+
+    @Test
+    void findPage() {
+        // given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(itemRepository.save(new Item("item" + i, i * 1000, i)).getId());
+        }
+        ItemSearchCond cond = new ItemSearchCond(null, 7000);
+
+        // when
+        List<Item> first = itemRepository.findPage(cond, ItemPageCond.first());
+        List<Item> next = itemRepository.findPage(cond, new ItemPageCond(ids.get(2), null, 3));
+        List<Item> previous = itemRepository.findPage(cond, new ItemPageCond(null, ids.get(6), 3));
+
+        // then - 다음 페이지 확인용으로 한 건 더 ( getFetchSize )
+        assertThat(first).extracting(Item::getId).containsExactlyElementsOf(ids.subList(0, 8));
+        assertThat(next).extracting(Item::getId).containsExactly(ids.get(3), ids.get(4), ids.get(5), ids.get(6));
+        assertThat(previous).extracting(Item::getId).containsExactly(ids.get(5), ids.get(4), ids.get(3), ids.get(2));
+    }
+
+    @Test
+    void findByUnknownId() {
+        itemRepository.save(new Item("itemA", 10000, 10));
+
+        // 0 은 id 맵의 빈 칸 표시이므로 첫 슬롯과 헷갈리면 안 된다.
+        assertThat(itemRepository.findById(0L)).isEmpty();
+        assertThat(itemRepository.findById(-1L)).isEmpty();
+        assertThat(itemRepository.findById(null)).isEmpty();
+        itemRepository.update(null, new ItemUpdateDto("itemB", 20000, 20, null));
+    }
+
+    @Test
+    void rejectLongItemName() {
+        assertThatThrownBy(() -> itemRepository.save(new Item("12345678901", 1000, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> values(List<Item> items) {
+        return items.stream()
+                .map(item -> item.getItemName() + "/" + item.getPrice() + "/" + item.getQuantity())
+                .toList();
+    }
+}
@@ -0,0 +1,150 @@
+package hello.springdb2.example.memory.repository;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class DurableItemRepositoryTest {
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private final MemoryItemRepository memory = new MemoryItemRepository();
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void afterEach() {
+        memory.clearStore();
+    }
+
+    @Test
+    void recoverFromWriteLog() throws IOException {
+        // given
+        Item itemA;
+        Item itemB;
+        try (DurableItemRepository repository = open()) {
+            itemA = repository.save(new Item("itemA", 10000, 10));
+            itemB = repository.save(new Item("itemB", 20000, null));
+            repository.update(itemA.getId(), new ItemUpdateDto("itemA2", 15000, 15, null));
+        }
+        memory.clearStore();
+
+        // when
+        try (DurableItemRepository repository = open()) {
+            // then
+            assertThat(repository.findAll(new ItemSearchCond(null, null)))
+                    .extracting(Item::getId, Item::getItemName, Item::getPrice, Item::getQuantity)
+                    .containsExactly(
+                            tuple(itemA.getId(), "itemA2", 15000, 15),
+                            tuple(itemB.getId(), "itemB", 20000, null)
+                    );
+            // 수정 횟수만큼 오른 버전도 복구된다.
+            assertThat(repository.findById(itemA.getId())).get().extracting(Item::getVersion).isEqualTo(1L);
+
+            // 시퀀스도 복구되어 id 가 겹치지 않는다.
+            assertThat(repository.save(new Item("itemC", 30000, 30)).getId()).isGreaterThan(itemB.getId());
+        }
+    }
+
+    @Test
+    void recoverFromSnapshotAndLogTail() throws IOException {
+        // given
+        Item itemA;
+        Item itemB;
+        try (DurableItemRepository repository = open()) {
+            itemA = repository.save(new Item("itemA", 10000, 10));
+            repository.snapshot();
+            itemB = repository.save(new Item("itemB", 20000, 20));
+            repository.update(itemA.getId(), new ItemUpdateDto("itemA2", 15000, 15, null));
+        }
+        memory.clearStore();
+
+        // when
+        try (DurableItemRepository repository = open()) {
+            // then
+            assertThat(repository.findAll(new ItemSearchCond(null, null)))
+                    .extracting(Item::getItemName)
+                    .containsExactly("itemA2", "itemB");
+            assertThat(repository.findById(itemA.getId())).get().extracting(Item::getVersion).isEqualTo(1L);
+            assertThat(repository.findAll(new ItemSearchCond(null, 15000)))
+                    .extracting(Item::getId)
+                    .containsExactly(itemA.getId());
+        }
+
+        // 스냅샷 이전 로그는 지워진다.
+        assertThat(ItemRecords.numbers(dir, ItemSnapshots.PREFIX, ItemSnapshots.SUFFIX)).hasSize(1);
+        long snapshot = ItemSnapshots.latest(dir);
+        assertThat(Arrays.stream(ItemRecords.numbers(dir, ItemWriteLog.PREFIX, ItemWriteLog.SUFFIX)).min().orElseThrow())
+                .isGreaterThanOrEqualTo(snapshot);
+    }
+
+    @Test
+    void dropTornRecordAtLogTail() throws IOException {
+        // given - 마지막 레코드를 쓰다가 멈춘 로그
+        try (DurableItemRepository repository = open()) {
+            repository.save(new Item("itemA", 10000, 10));
+            repository.save(new Item("itemB", 20000, 20));
+        }
+        long[] segments = ItemRecords.numbers(dir, ItemWriteLog.PREFIX, ItemWriteLog.SUFFIX);
+        Path lastSegment = ItemRecords.file(dir, ItemWriteLog.PREFIX, segments[segments.length - 1], ItemWriteLog.SUFFIX);
+        Files.write(lastSegment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        memory.clearStore();
+
+        // when
+        try (DurableItemRepository repository = open()) {
+            repository.save(new Item("itemC", 30000, 30));
+        }
+        memory.clearStore();
+
+        // then - 잘린 꼬리는 버리고, 그 뒤 쓰기도 다시 복구된다.
+        try (DurableItemRepository repository = open()) {
+            List<Item> items = repository.findAll(new ItemSearchCond(null, null));
+            assertThat(items).extracting(Item::getItemName).containsExactly("itemA", "itemB", "itemC");
+        }
+    }
+
+    @Test
+    void snapshotStoreGrownBetweenPasses() throws IOException {
+        // given - 크기를 센 뒤( 1차 ) 저장소가 커진 경우
+        int[] pass = {0};
+        Consumer<Consumer<Item>> items = action -> {
+            int count = pass[0]++ == 0 ? 2 : 3000;
+            for (long id = 1; id <= count; id++) {
+                Item item = new Item("item" + id, (int) id, null);
+                item.setId(id);
+                item.setVersion(0L);
+                action.accept(item);
+            }
+        };
+
+        // when
+        int count = ItemSnapshots.write(dir, 1, items);
+
+        // then - 맵 영역을 넘은 레코드도 이어서 읽힌다.
+        List<Item> restored = new ArrayList<>();
+        ItemSnapshots.read(dir, 1, restored::add);
+        assertThat(count).isEqualTo(3000);
+        assertThat(restored).hasSize(3000);
+        assertThat(restored.get(2999)).extracting(Item::getId, Item::getItemName).containsExactly(3000L, "item3000");
+    }
+
+    private DurableItemRepository open() throws IOException {
+        return DurableItemRepository.open(memory, dir, NEVER, NEVER);
+    }
+}
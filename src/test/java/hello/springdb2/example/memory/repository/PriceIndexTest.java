@@ -0,0 +1,64 @@
+package hello.springdb2.example.memory.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceIndexTest {
+
+    @Test
+    void idsUpTo() {
+        // given - 블록 분할이 여러 번 일어나도록 역순으로 넣는다.
+        PriceIndex index = new PriceIndex();
+        for (long id = 3000; id >= 1; id--) {
+            index.add((int) (id % 100) * 100, id);
+        }
+
+        // when
+        long[] ids = index.idsUpTo(100);
+
+        // then
+        long[] expected = LongStream.rangeClosed(1, 3000)
+                .filter(id -> id % 100 <= 1)
+                .toArray();
+        Arrays.sort(ids);
+        assertThat(ids).containsExactly(expected);
+    }
+
+    @Test
+    void replaceAndRemove() {
+        // given
+        PriceIndex index = new PriceIndex();
+        for (long id = 1; id <= 2000; id++) {
+            index.add(10000, id);
+        }
+
+        // when
+        index.replace(10000, 500, 7L);
+        index.remove(10000, 8L);
+
+        // then
+        assertThat(index.idsUpTo(1000)).containsExactly(7L);
+        assertThat(index.idsUpTo(10000)).hasSize(1999).doesNotContain(8L);
+    }
+
+    @Test
+    void selectiveIdsUpTo() {
+        // given - 가격 0 ~ 99 가 고르게 분포
+        PriceIndex index = new PriceIndex();
+        for (long id = 1; id <= 3000; id++) {
+            index.add((int) (id % 100), id);
+        }
+
+        // when
+        long[] narrow = index.selectiveIdsUpTo(4);
+        long[] wide = index.selectiveIdsUpTo(50);
+
+        // then - 5% 구간만 인덱스를 쓰고, 51% 구간은 순차 탐색으로 넘긴다.
+        assertThat(narrow).hasSize(150).containsExactlyInAnyOrder(index.idsUpTo(4));
+        assertThat(wide).isNull();
+    }
+}
@@ -0,0 +1,91 @@
+package hello.springdb2.example.sharding.repository;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.example.columnar.repository.ColumnarItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedItemRepositoryTest {
+    // 샤드마다 시퀀스가 따로 있는 저장소
+    private final List<ColumnarItemRepository> shards = List.of(
+            new ColumnarItemRepository(), new ColumnarItemRepository(), new ColumnarItemRepository()
+    );
+    private final ShardedItemRepository itemRepository = new ShardedItemRepository(shards);
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.close();
+    }
+
+    @Test
+    void globalIdRoutesToOneShard() {
+        // given
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            items.add(itemRepository.save(new Item("item" + i, i * 1000, i)));
+        }
+
+        // then - 샤드 id 는 겹쳐도 전역 id 는 겹치지 않고, 샤드마다 고르게 들어간다.
+        assertThat(items).extracting(Item::getId).doesNotHaveDuplicates();
+        assertThat(shards).allSatisfy(shard -> assertThat(shard.size()).isEqualTo(3));
+
+        // when
+        Item target = items.get(4);
+        itemRepository.update(target.getId(), new ItemUpdateDto("updated", 1, 1, null));
+
+        // then
+        assertThat(itemRepository.findById(target.getId())).get().extracting(Item::getItemName).isEqualTo("updated");
+        assertThat(itemRepository.findById(items.get(5).getId())).get().extracting(Item::getItemName).isEqualTo("item5");
+        assertThat(itemRepository.findById(1000L)).isEmpty();
+    }
+
+    @Test
+    void saveAllKeepsInputOrder() {
+        // when
+        List<Item> saved = itemRepository.saveAll(List.of(
+                new Item("itemA", 1000, 1), new Item("itemB", 2000, 2), new Item("itemC", 3000, 3), new Item("itemD", 4000, 4)
+        ));
+
+        // then
+        assertThat(saved).extracting(Item::getItemName).containsExactly("itemA", "itemB", "itemC", "itemD");
+        for (Item item : saved) {
+            assertThat(itemRepository.findById(item.getId())).get().extracting(Item::getItemName).isEqualTo(item.getItemName());
+        }
+    }
+
+    @Test
+    void mergeSearchAndPagesInIdOrder() {
+        // given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(itemRepository.save(new Item("item" + i, i * 1000, i)).getId());
+        }
+        List<Long> sortedIds = ids.stream().sorted().toList();
+        ItemSearchCond all = new ItemSearchCond(null, null);
+
+        // when, then - 모든 샤드를 모아 id 순서로
+        assertThat(itemRepository.findAll(all)).extracting(Item::getId).containsExactlyElementsOf(sortedIds);
+        assertThat(itemRepository.findAll(new ItemSearchCond(null, 4000))).hasSize(5);
+
+        // 키셋 페이지 - 한 건 더 ( getFetchSize )
+        assertThat(itemRepository.findPage(all, new ItemPageCond(null, null, 4)))
+                .extracting(Item::getId).containsExactlyElementsOf(sortedIds.subList(0, 5));
+        assertThat(itemRepository.findPage(all, new ItemPageCond(sortedIds.get(6), null, 4)))
+                .extracting(Item::getId).containsExactlyElementsOf(sortedIds.subList(7, 12));
+        assertThat(itemRepository.findPage(all, new ItemPageCond(null, sortedIds.get(6), 4)))
+                .extracting(Item::getId)
+                .containsExactly(sortedIds.get(5), sortedIds.get(4), sortedIds.get(3), sortedIds.get(2), sortedIds.get(1));
+
+        List<Long> streamed = new ArrayList<>();
+        itemRepository.streamAll(all, item -> streamed.add(item.getId()));
+        assertThat(streamed).containsExactlyInAnyOrderElementsOf(ids);
+    }
+}
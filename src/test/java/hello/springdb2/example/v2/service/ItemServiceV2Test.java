@@ -0,0 +1,102 @@
+package hello.springdb2.example.v2.service;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemPageCond;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.example.v2.repository.ItemQueryRepositoryV2;
+import hello.springdb2.example.v2.repository.ItemRepositoryV2;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Transactional
+@SpringBootTest
+class ItemServiceV2Test {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ItemRepositoryV2 itemRepositoryV2;
+
+    @Autowired
+    private ItemQueryRepositoryV2 itemQueryRepositoryV2;
+
+    private ItemServiceV2 itemService;
+
+    @BeforeEach
+    void beforeEach() {
+        itemService = new ItemServiceV2(itemRepositoryV2, itemQueryRepositoryV2);
+    }
+
+    @Test
+    void findItemsReturnsReadOnlyEntities() {
+        // given
+        itemService.save(new ItemAddDto("itemA", 10000, 10));
+        em.flush();
+        em.clear();
+
+        // when
+        List<Item> items = itemService.findItems(new ItemSearchCond("itemA", null));
+        List<Item> page = itemService.findItemPage(new ItemSearchCond("itemA", null), ItemPageCond.first()).getItems();
+
+        // then - 변경 감지 스냅샷이 없으므로 바꿔도 flush 되지 않는다.
+        Session session = em.unwrap(Session.class);
+        assertThat(items).hasSize(1).allMatch(session::isReadOnly);
+        assertThat(page).hasSize(1).allMatch(session::isReadOnly);
+
+        items.get(0).setItemName("changed");
+        em.flush();
+        em.clear();
+        assertThat(itemService.findItems(new ItemSearchCond("changed", null))).isEmpty();
+    }
+
+    @Test
+    void update() {
+        // given
+        Item item = itemService.save(new ItemAddDto("itemA", 10000, 10));
+        em.flush();
+        em.clear();
+
+        // when
+        itemService.update(item.getId(), new ItemUpdateDto("itemB", 20000, 20, null));
+        em.flush();
+        em.clear();
+
+        // then
+        assertThat(itemService.findById(item.getId())).map(Item::getItemName).contains("itemB");
+    }
+
+    @Test
+    void updateEvictsStaleEntity() {
+        // given
+        Item item = itemService.save(new ItemAddDto("itemA", 10000, 10));
+        Item managed = em.find(Item.class, item.getId());
+
+        // when
+        itemService.update(item.getId(), new ItemUpdateDto("itemB", 20000, 20, null));
+
+        // then - 수정 전 엔티티가 남아 있지 않고 다시 읽으면 새 값이다.
+        assertThat(em.contains(managed)).isFalse();
+        assertThat(em.find(Item.class, item.getId()).getItemName()).isEqualTo("itemB");
+    }
+
+    @Test
+    void updateMissingItem() {
+        // then
+        assertThatThrownBy(() -> itemService.update(-1L, new ItemUpdateDto("itemB", 20000, 20, null)))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+}
@@ -0,0 +1,144 @@
+package hello.springdb2.repository.cache;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingItemRepositoryTest {
+    private final CountingItemRepository delegate = new CountingItemRepository();
+
+    @AfterEach
+    void afterEach() {
+        delegate.clearStore();
+    }
+
+    @Test
+    void findById() {
+        // given
+        CachingItemRepository repository = new CachingItemRepository(delegate, 100);
+        Item item = repository.save(new Item("itemA", 10000, 10));
+
+        // when
+        repository.findById(item.getId());
+        repository.findById(item.getId());
+
+        // then
+        assertThat(delegate.loads.get()).isEqualTo(1);
+        assertThat(repository.stats().hitCount()).isEqualTo(1);
+        assertThat(repository.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateInvalidates() {
+        // given
+        CachingItemRepository repository = new CachingItemRepository(delegate, 100);
+        Item item = repository.save(new Item("itemA", 10000, 10));
+        repository.findById(item.getId());
+
+        // when
+        repository.update(item.getId(), new ItemUpdateDto("itemB", 20000, 30, null));
+
+        // then
+        assertThat(repository.findById(item.getId())).map(Item::getItemName).contains("itemB");
+        assertThat(delegate.loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void missingIdIsNotCached() {
+        // given
+        CachingItemRepository repository = new CachingItemRepository(delegate, 100);
+
+        // when
+        Optional<Item> first = repository.findById(1000L);
+        Item item = repository.save(new Item("itemA", 10000, 10));
+
+        // then
+        assertThat(first).isEmpty();
+        assertThat(repository.findById(item.getId())).isPresent();
+    }
+
+    @Test
+    void bounded() {
+        // given
+        CachingItemRepository repository = new CachingItemRepository(delegate, 10);
+        List<Item> items = IntStream.range(0, 100)
+                .mapToObj(i -> repository.save(new Item("item" + i, 1000, 1)))
+                .toList();
+
+        // when
+        items.forEach(item -> repository.findById(item.getId()));
+        repository.cleanUp();
+
+        // then
+        assertThat(repository.stats().evictionCount()).isGreaterThanOrEqualTo(90);
+    }
+
+    @Test
+    void concurrentMissLoadsOnce() throws Exception {
+        // given
+        CachingItemRepository repository = new CachingItemRepository(delegate, 100);
+        Item item = repository.save(new Item("itemA", 10000, 10));
+        delegate.loadDelayMillis = 100;
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        try {
+            CompletableFuture<?>[] futures = IntStream.range(0, threads)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        await(start);
+                        assertThat(repository.findById(item.getId())).isPresent();
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+            start.countDown();
+            CompletableFuture.allOf(futures).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        assertThat(delegate.loads.get()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class CountingItemRepository extends MemoryItemRepository {
+        final AtomicInteger loads = new AtomicInteger();
+        volatile long loadDelayMillis;
+
+        @Override
+        public Optional<Item> findById(Long id) {
+            loads.incrementAndGet();
+            if (loadDelayMillis > 0) {
+                try {
+                    Thread.sleep(loadDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.findById(id);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package hello.springdb2.repository.metrics;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import hello.springdb2.repository.DelegatingItemRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimedItemRepositoryTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MemoryItemRepository memoryItemRepository = new MemoryItemRepository();
+    private final TimedItemRepository itemRepository = new TimedItemRepository(
+            memoryItemRepository, "MemoryItemRepository", registry
+    );
+
+    @AfterEach
+    void afterEach() {
+        memoryItemRepository.clearStore();
+    }
+
+    @Test
+    void recordCallsAndResultSizes() {
+        // given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 20000, 20));
+
+        // when
+        itemRepository.findById(item.getId());
+        itemRepository.findById(item.getId());
+        itemRepository.findAll(new ItemSearchCond(null, null));
+        itemRepository.streamAll(new ItemSearchCond("itemA", null), new ArrayList<>()::add);
+
+        // then
+        assertThat(timer("findById", "none").count()).isEqualTo(2);
+        assertThat(timer("save", "none").count()).isEqualTo(2);
+        assertThat(results("findAll").totalAmount()).isEqualTo(2);
+        assertThat(results("streamAll").totalAmount()).isEqualTo(1);
+
+        // p50 / p99 / p999 를 내보낸다.
+        assertThat(timer("findById", "none").takeSnapshot().percentileValues()).hasSize(3);
+    }
+
+    @Test
+    void unwrapDecorators() {
+        // given - 메트릭 데코레이터를 두 겹으로 감싼다.
+        TimedItemRepository outer = new TimedItemRepository(itemRepository, "TimedItemRepository", registry);
+
+        // when, then
+        assertThat(DelegatingItemRepository.unwrap(outer)).isSameAs(memoryItemRepository);
+        assertThat(DelegatingItemRepository.unwrap(memoryItemRepository)).isSameAs(memoryItemRepository);
+    }
+
+    @Test
+    void recordErrorsByException() {
+        // when - null 조건은 NullPointerException
+        assertThatThrownBy(() -> itemRepository.findAll(null)).isInstanceOf(NullPointerException.class);
+
+        // then
+        assertThat(timer("findAll", "NullPointerException").count()).isEqualTo(1);
+        assertThat(timer("findAll", "none").count()).isZero();
+    }
+
+    private Timer timer(String method, String exception) {
+        return registry.get("item.repository.calls")
+                .tags("class", "MemoryItemRepository", "method", method, "exception", exception)
+                .timer();
+    }
+
+    private DistributionSummary results(String method) {
+        return registry.get("item.repository.results")
+                .tags("class", "MemoryItemRepository", "method", method)
+                .summary();
+    }
+}
@@ -0,0 +1,108 @@
+package hello.springdb2.repository.routing;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate template;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void beforeEach() {
+        String name = UUID.randomUUID().toString();
+        primary = new DriverManagerDataSource("jdbc:h2:mem:primary-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        replica = new DriverManagerDataSource("jdbc:h2:mem:replica-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        routing = new ReadWriteRoutingDataSource(primary, List.of(replica), Duration.ofMinutes(1));
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        template = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // 어느 DB 에서 읽었는지 표시
+        new JdbcTemplate(primary).execute("create table node as select 'primary' as name");
+        new JdbcTemplate(replica).execute("create table node as select 'replica' as name");
+    }
+
+    @AfterEach
+    void afterEach() {
+        routing.close();
+        new JdbcTemplate(primary).execute("shutdown");
+        new JdbcTemplate(replica).execute("shutdown");
+        ReadYourWrites.unbind();
+    }
+
+    @Test
+    void routeByTransactionReadOnly() {
+        ReadYourWrites.bind(new ReadYourWrites(0));
+
+        assertThat(readOnly.execute(status -> node())).isEqualTo("replica");
+        assertThat(readWrite.execute(status -> node())).isEqualTo("primary");
+        // 트랜잭션 밖은 주 DB
+        assertThat(node()).isEqualTo("primary");
+    }
+
+    @Test
+    void readYourWritesPerClient() {
+        // given - 클라이언트 A 가 쓰기
+        ReadYourWrites clientA = new ReadYourWrites(0);
+        ReadYourWrites.bind(clientA);
+        readWrite.executeWithoutResult(status -> template.update("update node set name = name"));
+
+        // when, then - A 는 창 안에서 주 DB, 다른 클라이언트 B 는 복제 DB
+        assertThat(readOnly.execute(status -> node())).isEqualTo("primary");
+
+        ReadYourWrites.bind(new ReadYourWrites(0));
+        assertThat(readOnly.execute(status -> node())).isEqualTo("replica");
+
+        // 창이 지나면 A 도 복제 DB
+        ReadYourWrites.bind(new ReadYourWrites(System.currentTimeMillis() - 1));
+        assertThat(readOnly.execute(status -> node())).isEqualTo("replica");
+    }
+
+    @Test
+    void replicateWithStandIn() throws SQLException, InterruptedException {
+        // given - Flyway 는 빈 스키마에서 시작한다.
+        new JdbcTemplate(primary).execute("drop table node");
+        new JdbcTemplate(replica).execute("drop table node");
+        Flyway.configure().dataSource(primary).load().migrate();
+        routing.addResource(H2ReplicationStandIn.start(primary, "", replica, Duration.ofMillis(20)));
+
+        // when
+        new JdbcTemplate(primary).update("insert into item(item_name, price, quantity) values('itemA', 10000, 10)");
+
+        // then - 복제 지연 뒤 복제 DB 에서 보인다.
+        JdbcTemplate replicaTemplate = new JdbcTemplate(replica);
+        long deadline = System.currentTimeMillis() + 5000;
+        List<String> names = List.of();
+        while (names.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            names = replicaTemplate.queryForList("select item_name from item", String.class);
+        }
+        assertThat(names).containsExactly("itemA");
+    }
+
+    private String node() {
+        return template.queryForObject("select name from node", String.class);
+    }
+}
@@ -0,0 +1,64 @@
+package hello.springdb2.repository.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemNameIndexTest {
+
+    @Test
+    void search() {
+        // given
+        ItemNameIndex index = new ItemNameIndex();
+        index.put(1L, "itemA-1");
+        index.put(2L, "itemA-2");
+        index.put(3L, "itemB-1");
+        index.put(4L, "temxitem");
+
+        // then
+        assertThat(index.search("itemA")).containsExactly(1L, 2L);
+        assertThat(index.search("temA")).containsExactly(1L, 2L);
+        assertThat(index.search("item")).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(index.search("B-1")).containsExactly(3L);
+        assertThat(index.search("itemC")).isEmpty();
+    }
+
+    @Test
+    void searchVerifiesCandidates() {
+        // given - "abc", "bcd" 조각은 모두 있지만 "abcd" 는 이어져 있지 않다.
+        ItemNameIndex index = new ItemNameIndex();
+        index.put(1L, "abc-bcd");
+
+        // then
+        assertThat(index.search("abcd")).isEmpty();
+    }
+
+    @Test
+    void put() {
+        // given
+        ItemNameIndex index = new ItemNameIndex();
+        index.put(1L, "itemA");
+
+        // when
+        index.put(1L, "itemB");
+
+        // then
+        assertThat(index.search("itemA")).isEmpty();
+        assertThat(index.search("itemB")).containsExactly(1L);
+
+        // when
+        index.put(1L, null);
+
+        // then
+        assertThat(index.search("item")).isEmpty();
+    }
+
+    @Test
+    void shortFragment() {
+        ItemNameIndex index = new ItemNameIndex();
+        assertThat(index.supports("it")).isFalse();
+        assertThatThrownBy(() -> index.search("it"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,122 @@
+package hello.springdb2.repository.search;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameIndexedItemRepositoryTest {
+    private final CountingItemRepository delegate = new CountingItemRepository();
+
+    @AfterEach
+    void afterEach() {
+        delegate.clearStore();
+    }
+
+    @Test
+    void findAllBeforeLoad() {
+        // given
+        NameIndexedItemRepository repository = new NameIndexedItemRepository(delegate, new LiveItemNameIndex());
+        delegate.save(new Item("itemA-1", 10000, 10));
+
+        // when
+        List<Item> result = repository.findAll(new ItemSearchCond("itemA", null));
+
+        // then - 색인을 채우기 전에는 원래 검색으로 간다.
+        assertThat(result).extracting(Item::getItemName).containsExactly("itemA-1");
+        assertThat(delegate.searches.get()).isEqualTo(1);
+    }
+
+    @Test
+    void findAll() {
+        // given
+        NameIndexedItemRepository repository = new NameIndexedItemRepository(delegate, new LiveItemNameIndex());
+        delegate.save(new Item("itemA-1", 10000, 10));
+        delegate.save(new Item("itemA-2", 20000, 20));
+        delegate.save(new Item("itemB-1", 30000, 30));
+        repository.loadIndex();
+
+        // when
+        List<Item> result = repository.findAll(new ItemSearchCond("itemA", 15000));
+
+        // then
+        assertThat(result).extracting(Item::getItemName).containsExactly("itemA-1");
+        assertThat(repository.findAll(new ItemSearchCond("itemC", null))).isEmpty();
+        assertThat(delegate.searches.get()).isZero();
+    }
+
+    @Test
+    void writesUpdateIndex() {
+        // given
+        NameIndexedItemRepository repository = new NameIndexedItemRepository(delegate, new LiveItemNameIndex());
+        repository.loadIndex();
+        Item item = repository.save(new Item("itemA", 10000, 10));
+
+        // when
+        repository.update(item.getId(), new ItemUpdateDto("itemB", 10000, 10, null));
+
+        // then
+        assertThat(repository.findAll(new ItemSearchCond("itemA", null))).isEmpty();
+        assertThat(repository.findAll(new ItemSearchCond("itemB", null))).extracting(Item::getId).containsExactly(item.getId());
+        assertThat(delegate.searches.get()).isZero();
+    }
+
+    @Test
+    void writeIsAppliedAfterCommit() {
+        // given
+        LiveItemNameIndex index = new LiveItemNameIndex();
+        index.load(delegate);
+
+        // when - 롤백되면 afterCommit 이 호출되지 않는다.
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.afterWrite(1L, "itemA");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then
+        assertThat(index.search("itemA")).isEmpty();
+    }
+
+    @Test
+    void loadKeepsWriteCommittedWhileLoading() {
+        // given - 채우기가 예전 이름을 읽는 사이에 이름이 바뀐다.
+        Item item = delegate.save(new Item("itemA", 10000, 10));
+        LiveItemNameIndex index = new LiveItemNameIndex();
+        MemoryItemRepository racing = new MemoryItemRepository() {
+            @Override
+            public void streamAll(ItemSearchCond cond, Consumer<Item> action) {
+                index.afterWrite(item.getId(), "itemB");
+                action.accept(item);
+            }
+        };
+
+        // when
+        index.load(racing);
+
+        // then
+        assertThat(index.isLoaded()).isTrue();
+        assertThat(index.search("itemA")).isEmpty();
+        assertThat(index.search("itemB")).containsExactly(item.getId());
+    }
+
+    static class CountingItemRepository extends MemoryItemRepository {
+        final AtomicInteger searches = new AtomicInteger();
+
+        @Override
+        public List<Item> findAll(ItemSearchCond cond) {
+            searches.incrementAndGet();
+            return super.findAll(cond);
+        }
+    }
+}
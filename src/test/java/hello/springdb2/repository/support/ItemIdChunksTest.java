@@ -0,0 +1,56 @@
+package hello.springdb2.repository.support;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemLookup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemIdChunksTest {
+
+    @Test
+    void padToPowerOfTwo() {
+        // 중복, null 은 빼고, 마지막 id 로 채운다.
+        assertThat(ItemIdChunks.chunks(Arrays.asList(3L, 1L, null, 3L, 2L)))
+                .containsExactly(List.of(3L, 1L, 2L, 2L));
+        assertThat(ItemIdChunks.chunks(List.of(7L))).containsExactly(List.of(7L));
+        assertThat(ItemIdChunks.chunks(List.of())).isEmpty();
+    }
+
+    @Test
+    void splitByMaxChunkSize() {
+        // given
+        List<Long> ids = LongStream.rangeClosed(1, ItemIdChunks.MAX_CHUNK_SIZE + 5).boxed().toList();
+
+        // when
+        List<List<Long>> chunks = ItemIdChunks.chunks(ids);
+
+        // then - 256 + 8 ( 5 건을 8 로 채움 )
+        assertThat(chunks).extracting(List::size).containsExactly(ItemIdChunks.MAX_CHUNK_SIZE, 8);
+        assertThat(chunks.get(1)).containsExactly(257L, 258L, 259L, 260L, 261L, 261L, 261L, 261L);
+        assertThat(ItemIdChunks.placeholders(4)).isEqualTo("?, ?, ?, ?");
+    }
+
+    @Test
+    void lookupInRequestOrder() {
+        // given
+        List<Item> found = new ArrayList<>();
+        for (long id : new long[]{1, 3}) {
+            Item item = new Item("item" + id, 1000, 1);
+            item.setId(id);
+            found.add(item);
+        }
+
+        // when
+        ItemLookup lookup = ItemLookup.of(List.of(3L, 2L, 1L, 3L), found);
+
+        // then
+        assertThat(lookup.getItems()).extracting(Item::getId).containsExactly(3L, 1L);
+        assertThat(lookup.getMissingIds()).containsExactly(2L);
+    }
+}
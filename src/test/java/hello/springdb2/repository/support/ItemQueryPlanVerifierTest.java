@@ -0,0 +1,35 @@
+package hello.springdb2.repository.support;
+
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 마이그레이션된 스키마에서 검색 쿼리가 인덱스를 타는지 확인한다.
+ */
+@SpringBootTest
+class ItemQueryPlanVerifierTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectProvider<SqlSessionFactory> sqlSessionFactory;
+
+    @Test
+    void likeSearchUsesIndex() {
+        // given
+        ItemQueryPlanVerifier verifier = new ItemQueryPlanVerifier(
+                dataSource, sqlSessionFactory.getIfAvailable(), ItemNameSearchMode.LIKE
+        );
+
+        // then
+        assertThat(verifier.findViolations()).isEmpty();
+    }
+}
@@ -0,0 +1,65 @@
+package hello.springdb2.repository.support;
+
+import hello.springdb2.domain.Item;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RowMappersTest {
+    private final SingleConnectionDataSource dataSource =
+            new SingleConnectionDataSource("jdbc:h2:mem:row-mappers", true);
+    private final JdbcTemplate template = new JdbcTemplate(dataSource);
+
+    @AfterEach
+    void afterEach() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void mapRow() {
+        // given
+        RowMapper<Item> rowMapper = RowMappers.of(Item.class, "id", "item_name", "price", "quantity");
+
+        // when
+        Item item = template.queryForObject("select 1, 'itemA', 10000, 10", rowMapper);
+
+        // then
+        assertThat(item.getId()).isEqualTo(1L);
+        assertThat(item.getItemName()).isEqualTo("itemA");
+        assertThat(item.getPrice()).isEqualTo(10000);
+        assertThat(item.getQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void nullColumn() {
+        // given
+        RowMapper<Item> rowMapper = RowMappers.of(Item.class, "id", "item_name", "price", "quantity");
+
+        // when
+        Item item = template.queryForObject("select 1, null, null, 10", rowMapper);
+
+        // then
+        assertThat(item.getItemName()).isNull();
+        assertThat(item.getPrice()).isNull();
+    }
+
+    @Test
+    void cachedPerShape() {
+        // then
+        assertThat(RowMappers.of(Item.class, "id", "item_name"))
+                .isSameAs(RowMappers.of(Item.class, "id", "item_name"))
+                .isNotSameAs(RowMappers.of(Item.class, "id", "item_name", "price"));
+    }
+
+    @Test
+    void unknownColumn() {
+        // then
+        assertThatThrownBy(() -> RowMappers.of(Item.class, "id", "unknown"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,100 @@
+package hello.springdb2.repository.trace;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracingDataSourceTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JdbcTemplate template;
+
+    @BeforeEach
+    void beforeEach() {
+        DriverManagerDataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:trace;DB_CLOSE_DELAY=-1");
+        SqlTracer tracer = new SqlTracer(
+                new StaticListableBeanFactory(Map.of("meterRegistry", registry)).getBeanProvider(MeterRegistry.class),
+                Duration.ofSeconds(10)
+        );
+        template = new JdbcTemplate(new TracingDataSource(h2, tracer));
+        template.execute("create table item(id bigint auto_increment primary key, item_name varchar(10))");
+    }
+
+    @AfterEach
+    void afterEach() {
+        template.execute("drop table item");
+        SqlStatementCounter.unbind();
+    }
+
+    @Test
+    void recordRowsAndBatchSize() {
+        // given
+        SqlStatementCounter counter = new SqlStatementCounter();
+        SqlStatementCounter.bind(counter);
+
+        // when
+        template.batchUpdate(
+                "insert into item(item_name) values(?)",
+                List.of(new Object[]{"itemA"}, new Object[]{"itemB"}, new Object[]{"itemC"})
+        );
+        template.update("update item set item_name = 'itemD' where item_name = 'itemA'");
+        List<String> names = template.queryForList("select item_name from item order by id", String.class);
+
+        // then
+        assertThat(names).containsExactly("itemD", "itemB", "itemC");
+        assertThat(registry.get("item.sql.rows").tag("kind", SqlTracer.BATCH).summary().totalAmount()).isEqualTo(3);
+        assertThat(registry.get("item.sql.rows").tag("kind", SqlTracer.UPDATE).summary().totalAmount()).isEqualTo(1);
+        assertThat(registry.get("item.sql.rows").tag("kind", SqlTracer.QUERY).summary().totalAmount()).isEqualTo(3);
+        assertThat(registry.get("item.sql.statements").tag("kind", SqlTracer.QUERY).timer().count()).isEqualTo(1);
+
+        // create table ( 카운터 bind 전 ) 은 세지 않는다.
+        assertThat(counter.getStatements()).isEqualTo(3);
+        assertThat(counter.getRows()).isEqualTo(7);
+    }
+
+    @Test
+    void propagateCounterToOtherThread() throws InterruptedException {
+        // given
+        SqlStatementCounter counter = new SqlStatementCounter();
+        SqlStatementCounter.bind(counter);
+        Runnable task = SqlStatementCounter.propagate(() -> template.queryForList("select id from item"));
+        SqlStatementCounter.unbind();
+
+        // when
+        Thread thread = new Thread(task);
+        thread.start();
+        thread.join();
+
+        // then
+        assertThat(counter.getStatements()).isEqualTo(1);
+    }
+
+    @Test
+    void unwrapTarget() throws Exception {
+        assertThat(template.getDataSource().isWrapperFor(DriverManagerDataSource.class)).isTrue();
+        assertThat(template.getDataSource().unwrap(DriverManagerDataSource.class)).isNotNull();
+    }
+
+    @Test
+    void proxyIdentity() throws Exception {
+        try (Connection connection = template.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            assertThat(connection).isEqualTo(connection).isNotEqualTo(connection.unwrap(Connection.class));
+            assertThat(connection.hashCode()).isEqualTo(System.identityHashCode(connection));
+            assertThat(statement).isEqualTo(statement);
+            assertThat(statement.getConnection()).isSameAs(connection);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package hello.springdb2.repository.version;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemCatalogVersionTest {
+    private final ItemCatalogVersion catalogVersion =
+            new ItemCatalogVersion(Clock.fixed(Instant.ofEpochMilli(1_000), ZoneOffset.UTC));
+
+    @AfterEach
+    void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bump() {
+        // given
+        ItemCatalogVersion.Stamp before = catalogVersion.current();
+
+        // when
+        catalogVersion.bump();
+
+        // then - 같은 기동 안에서 토큰만 바뀐다.
+        ItemCatalogVersion.Stamp after = catalogVersion.current();
+        assertThat(after.epoch()).isEqualTo(before.epoch());
+        assertThat(after.token()).isNotEqualTo(before.token());
+        assertThat(after.lastModified()).isEqualTo(1_000);
+    }
+
+    @Test
+    void bumpAgainAfterTransaction() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when - 트랜잭션 안의 쓰기
+        catalogVersion.bump();
+        ItemCatalogVersion.Stamp beforeCommit = catalogVersion.current();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // then - 커밋 전에 받은 태그는 커밋 뒤에 맞지 않는다.
+        assertThat(catalogVersion.current().sequence()).isEqualTo(beforeCommit.sequence() + 1);
+    }
+
+    @Test
+    void skipLookupIsOffByDefault() {
+        assertThat(catalogVersion.canSkipLookup()).isFalse();
+        assertThat(new ItemCatalogVersion(Clock.systemUTC(), true).canSkipLookup()).isTrue();
+    }
+}
@@ -0,0 +1,69 @@
+package hello.springdb2.service.async;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import hello.springdb2.service.ItemServiceV1;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutorAsyncItemServiceTest {
+    private final MemoryItemRepository itemRepository = new MemoryItemRepository();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "item-async-test"));
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void findItemsRunsOnExecutor() {
+        // given
+        AtomicReference<String> threadName = new AtomicReference<>();
+        ExecutorAsyncItemService itemService = new ExecutorAsyncItemService(
+                new ItemServiceV1(itemRepository),
+                task -> executor.execute(() -> {
+                    threadName.set(Thread.currentThread().getName());
+                    task.run();
+                })
+        );
+        itemService.save(new ItemAddDto("itemA", 10000, 10)).join();
+
+        // when
+        List<Item> result = itemService.findItems(new ItemSearchCond("item", null)).join();
+
+        // then
+        assertThat(result).extracting(Item::getItemName).containsExactly("itemA");
+        assertThat(threadName.get()).isEqualTo("item-async-test");
+    }
+
+    @Test
+    void rejectedTaskFailsFuture() {
+        // given - 큐가 가득 찬 Executor
+        ExecutorAsyncItemService itemService = new ExecutorAsyncItemService(
+                new ItemServiceV1(itemRepository),
+                task -> {
+                    throw new RejectedExecutionException("full");
+                }
+        );
+
+        // when
+        CompletableFuture<List<Item>> result = itemService.findItems(new ItemSearchCond(null, null));
+
+        // then - 호출 스레드에는 던지지 않는다.
+        assertThat(result).isCompletedExceptionally();
+        assertThatThrownBy(result::join).hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+}
@@ -0,0 +1,95 @@
+package hello.springdb2.service.cache;
+
+import hello.springdb2.domain.Item;
+import hello.springdb2.dto.ItemAddDto;
+import hello.springdb2.dto.ItemSearchCond;
+import hello.springdb2.dto.ItemUpdateDto;
+import hello.springdb2.example.memory.repository.MemoryItemRepository;
+import hello.springdb2.service.ItemServiceV1;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingItemServiceTest {
+    private final MemoryItemRepository itemRepository = new MemoryItemRepository();
+    private final AtomicLong nanos = new AtomicLong();
+    private final CachingItemService itemService = new CachingItemService(
+            new ItemServiceV1(itemRepository), 100, Duration.ofSeconds(10), nanos::get
+    );
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void findItems() {
+        // given
+        itemService.save(new ItemAddDto("itemA", 10000, 10));
+
+        // when
+        itemService.findItems(new ItemSearchCond("item", null));
+        List<Item> result = itemService.findItems(new ItemSearchCond("item", null));
+
+        // then
+        assertThat(result).extracting(Item::getItemName).containsExactly("itemA");
+        assertThat(itemService.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void normalizedKey() {
+        // when
+        itemService.findItems(new ItemSearchCond(null, null));
+        itemService.findItems(new ItemSearchCond("", null));
+
+        // then
+        assertThat(itemService.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshot() {
+        // given
+        itemService.save(new ItemAddDto("itemA", 10000, 10));
+        ItemSearchCond cond = new ItemSearchCond(null, null);
+
+        // when
+        itemService.findItems(cond).get(0).setItemName("changed");
+
+        // then
+        assertThat(itemService.findItems(cond)).extracting(Item::getItemName).containsExactly("itemA");
+    }
+
+    @Test
+    void writeInvalidates() {
+        // given
+        Item item = itemService.save(new ItemAddDto("itemA", 10000, 10));
+        ItemSearchCond cond = new ItemSearchCond(null, null);
+        itemService.findItems(cond);
+
+        // when
+        itemService.update(item.getId(), new ItemUpdateDto("itemB", 20000, 30, null));
+        itemService.save(new ItemAddDto("itemC", 10000, 10));
+
+        // then
+        assertThat(itemService.findItems(cond)).extracting(Item::getItemName).containsExactly("itemB", "itemC");
+    }
+
+    @Test
+    void expires() {
+        // given
+        ItemSearchCond cond = new ItemSearchCond(null, null);
+        itemService.findItems(cond);
+        itemRepository.save(new Item("itemA", 10000, 10));
+
+        // when
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        // then
+        assertThat(itemService.findItems(cond)).hasSize(1);
+    }
+}